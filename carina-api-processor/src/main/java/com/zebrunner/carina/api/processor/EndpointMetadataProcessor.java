@@ -0,0 +1,695 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Generates metadata of the API method classes and endpoint template interfaces at compile time, so carina-api
+ * does not resolve these annotations by reflection at runtime:
+ * {@code @Endpoint}, {@code @ContentType}, {@code @Header}, {@code @Cookie}, {@code @RequestTemplatePath},
+ * {@code @ResponseTemplatePath}, {@code @SuccessfulHttpStatus} for classes and {@code @EndpointTemplate},
+ * {@code @EndpointTemplateMethod} with its shortcuts ({@code @GetMethod} etc.) for template interfaces.
+ * Template interfaces also get an implementation that is used by TemplateFactory instead of a dynamic proxy,
+ * if one of their abstract methods is not an endpoint template method, a warning is reported and the proxy is used.
+ * Request/response template paths are listed in the {@value #TEMPLATE_INDEX} resource for preloading.<br>
+ * Annotations are searched in the whole hierarchy by the same rules that are used at runtime. If an element
+ * can't be resolved unambiguously, metadata is not generated for it and it is resolved by reflection as before
+ */
+@SupportedAnnotationTypes("*")
+public class EndpointMetadataProcessor extends AbstractProcessor {
+
+    static final String METADATA_CLASS_SUFFIX = "_ApiMetadata";
+    static final String TEMPLATE_CLASS_SUFFIX = "_ApiTemplate";
+    static final String TEMPLATE_INDEX = "META-INF/carina-api/templates";
+
+    private static final String API_PACKAGE = "com.zebrunner.carina.api";
+    private static final String ANNOTATION_PACKAGE = API_PACKAGE + ".annotation";
+    private static final String ABSTRACT_API_METHOD = API_PACKAGE + ".AbstractApiMethod";
+    private static final String ABSTRACT_API_METHOD_V2 = API_PACKAGE + ".AbstractApiMethodV2";
+    private static final String METHOD_BASED_API_METHOD = API_PACKAGE + ".MethodBasedApiMethod";
+    private static final String ENDPOINT = ANNOTATION_PACKAGE + ".Endpoint";
+    private static final String CONTENT_TYPE = ANNOTATION_PACKAGE + ".ContentType";
+    private static final String HEADER = ANNOTATION_PACKAGE + ".Header";
+    private static final String COOKIE = ANNOTATION_PACKAGE + ".Cookie";
+    private static final String REQUEST_TEMPLATE_PATH = ANNOTATION_PACKAGE + ".RequestTemplatePath";
+    private static final String RESPONSE_TEMPLATE_PATH = ANNOTATION_PACKAGE + ".ResponseTemplatePath";
+    private static final String SUCCESSFUL_HTTP_STATUS = ANNOTATION_PACKAGE + ".SuccessfulHttpStatus";
+    private static final String ENDPOINT_TEMPLATE = ANNOTATION_PACKAGE + ".EndpointTemplate";
+    private static final String ENDPOINT_TEMPLATE_METHOD = ANNOTATION_PACKAGE + ".EndpointTemplateMethod";
+    private static final String GENERATED = "javax.annotation.processing.Generated";
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+    private final Set<String> deferredTypes = new LinkedHashSet<>();
+    private final Set<String> templatePaths = new TreeSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement apiMethodType = elements.getTypeElement(ABSTRACT_API_METHOD);
+        if (apiMethodType == null) {
+            return false;
+        }
+
+        List<TypeElement> typesToProcess = new ArrayList<>();
+        for (String deferredType : deferredTypes) {
+            Optional.ofNullable(elements.getTypeElement(deferredType)).ifPresent(typesToProcess::add);
+        }
+        deferredTypes.clear();
+        for (Element element : roundEnv.getRootElements()) {
+            collectTypes(element, typesToProcess);
+        }
+
+        for (TypeElement type : typesToProcess) {
+            if (hasErrorTypes(type) && !roundEnv.processingOver()) {
+                // hierarchy refers to the types that will be generated in the next rounds
+                deferredTypes.add(type.getQualifiedName().toString());
+                continue;
+            }
+            if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)
+                    && types.isSubtype(types.erasure(type.asType()), types.erasure(apiMethodType.asType()))) {
+                generate(type, "Metadata", this::generateEndpointMetadata);
+            } else if (type.getKind() == ElementKind.INTERFACE) {
+                generate(type, "Metadata", this::generateEndpointTemplateMetadata);
+                generate(type, "Implementation", this::generateEndpointTemplateImplementation);
+            }
+            collectTemplatePaths(type);
+        }
+        if (roundEnv.processingOver() && !templatePaths.isEmpty()) {
+            writeTemplateIndex();
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type, String kind, Consumer<TypeElement> generator) {
+        try {
+            generator.accept(type);
+        } catch (UnsupportedElementException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE,
+                    String.format("%s is not generated, it will be resolved at runtime: %s", kind, e.getMessage()), type);
+        }
+    }
+
+    /**
+     * Collects request/response template paths of the type and its methods to the index
+     * that is used by TemplateRegistry of carina-api to preload templates
+     */
+    private void collectTemplatePaths(TypeElement type) {
+        List<Element> annotatedElements = new ArrayList<>();
+        annotatedElements.add(type);
+        annotatedElements.addAll(ElementFilter.methodsIn(type.getEnclosedElements()));
+        for (Element element : annotatedElements) {
+            for (String annotationName : List.of(REQUEST_TEMPLATE_PATH, RESPONSE_TEMPLATE_PATH)) {
+                try {
+                    findAnnotation(element, annotationName)
+                            .map(annotation -> getString(annotation, "path"))
+                            .filter(path -> !path.isEmpty())
+                            .ifPresent(templatePaths::add);
+                } catch (UnsupportedElementException e) {
+                    // ambiguous annotations are resolved at runtime, template is loaded on the first use
+                }
+            }
+        }
+    }
+
+    private void writeTemplateIndex() {
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", TEMPLATE_INDEX).openWriter()) {
+            for (String templatePath : templatePaths) {
+                writer.write(templatePath);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Unable to write template index: " + e.getMessage());
+        }
+    }
+
+    private static void collectTypes(Element element, List<TypeElement> collector) {
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            collector.add((TypeElement) element);
+            for (TypeElement nested : ElementFilter.typesIn(element.getEnclosedElements())) {
+                collectTypes(nested, collector);
+            }
+        }
+    }
+
+    private boolean hasErrorTypes(TypeElement type) {
+        if (type.getSuperclass().getKind() == TypeKind.ERROR) {
+            return true;
+        }
+        for (TypeMirror anInterface : type.getInterfaces()) {
+            if (anInterface.getKind() == TypeKind.ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generateEndpointMetadata(TypeElement type) {
+        Optional<FoundAnnotation> endpoint = findFirstInHierarchy(type, ENDPOINT);
+        Optional<FoundAnnotation> contentType = findFirstInHierarchy(type, CONTENT_TYPE);
+        Optional<FoundAnnotation> requestTemplatePath = findFirstInHierarchy(type, REQUEST_TEMPLATE_PATH);
+        Optional<FoundAnnotation> responseTemplatePath = findFirstInHierarchy(type, RESPONSE_TEMPLATE_PATH);
+        Optional<FoundAnnotation> successfulHttpStatus = findFirstInHierarchy(type, SUCCESSFUL_HTTP_STATUS);
+        Map<String, String> headers = findKeyValues(type, HEADER);
+        Map<String, String> cookies = findKeyValues(type, COOKIE);
+
+        SourceBuilder source = new SourceBuilder(getPackageName(type), getGeneratedClassName(type, METADATA_CLASS_SUFFIX))
+                .addImport("com.zebrunner.carina.api.http.HttpMethodType")
+                .addImport("com.zebrunner.carina.api.http.HttpResponseStatus")
+                .addImport("com.zebrunner.carina.api.http.HttpResponseStatusType")
+                .addImport("com.zebrunner.carina.api.resolver.EndpointMetadata")
+                .addImport("com.zebrunner.carina.api.resolver.RequestStartLine")
+                .addImport("java.util.Map")
+                .addImport("java.util.Optional");
+        source.beginClass("EndpointMetadata", isGeneratedAvailable());
+
+        source.line("private static final Map<String, ?> HEADERS = " + toMapExpression(headers) + ";")
+                .line("private static final Map<String, ?> COOKIES = " + toMapExpression(cookies) + ";")
+                .line("");
+
+        source.beginMethod("Optional<RequestStartLine> getStartLine()")
+                .line("return " + endpoint.map(e -> "Optional.of(new RequestStartLine(" + literal(getString(e, "url")) + ", HttpMethodType."
+                        + getEnumName(e, "methodType") + "))").orElse("Optional.empty()") + ";")
+                .endMethod();
+        source.beginMethod("Optional<String> getContentType()")
+                .line("return " + optionalString(contentType, "type") + ";")
+                .endMethod();
+        source.beginMethod("Optional<String> getRequestTemplatePath()")
+                .line("return " + optionalString(requestTemplatePath, "path") + ";")
+                .endMethod();
+        source.beginMethod("Optional<String> getResponseTemplatePath()")
+                .line("return " + optionalString(responseTemplatePath, "path") + ";")
+                .endMethod();
+        source.beginMethod("Optional<HttpResponseStatus> getSuccessfulHttpStatus()")
+                .line("return " + successfulHttpStatus.map(s -> "Optional.of(HttpResponseStatusType." + getEnumName(s, "status")
+                        + ".getResponseStatus().withMessageOverride(" + literal(getString(s, "messageOverride")) + "))").orElse("Optional.empty()") + ";")
+                .endMethod();
+        source.beginMethod("Map<String, ?> getHeaders()")
+                .line("return HEADERS;")
+                .endMethod();
+        source.beginMethod("Map<String, ?> getCookies()")
+                .line("return COOKIES;")
+                .endMethod();
+
+        write(type, source.endClass());
+    }
+
+    private void generateEndpointTemplateMetadata(TypeElement type) {
+        Map<ExecutableElement, String[]> startLines = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.DEFAULT) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            Optional<FoundAnnotation> templateMethod = findAnnotation(method, ENDPOINT_TEMPLATE_METHOD);
+            if (templateMethod.isEmpty()) {
+                continue;
+            }
+            String url = getString(templateMethod.get(), "url");
+            Optional<FoundAnnotation> template = findAnnotation(method, ENDPOINT_TEMPLATE);
+            if (template.isEmpty()) {
+                template = findFirstInHierarchy(type, ENDPOINT_TEMPLATE);
+            }
+            if (template.isPresent()) {
+                url = buildPath(getString(template.get(), "url"), url);
+            }
+            startLines.put(method, new String[] { url, getEnumName(templateMethod.get(), "methodType") });
+        }
+        if (startLines.isEmpty()) {
+            return;
+        }
+
+        SourceBuilder source = new SourceBuilder(getPackageName(type), getGeneratedClassName(type, METADATA_CLASS_SUFFIX))
+                .addImport("com.zebrunner.carina.api.http.HttpMethodType")
+                .addImport("com.zebrunner.carina.api.resolver.EndpointTemplateMetadata")
+                .addImport("com.zebrunner.carina.api.resolver.RequestStartLine")
+                .addImport("java.lang.reflect.Method")
+                .addImport("java.util.Arrays")
+                .addImport("java.util.Optional");
+        source.beginClass("EndpointTemplateMetadata", isGeneratedAvailable());
+
+        int index = 0;
+        Map<ExecutableElement, String> parameterTypesFields = new LinkedHashMap<>();
+        for (ExecutableElement method : startLines.keySet()) {
+            String field = "PARAMETER_TYPES_" + index++;
+            parameterTypesFields.put(method, field);
+            source.line("private static final Class<?>[] " + field + " = { " + getParameterTypes(method) + " };");
+        }
+        source.line("");
+
+        source.beginMethod("Optional<RequestStartLine> getStartLine(Method method)");
+        for (Map.Entry<ExecutableElement, String[]> entry : startLines.entrySet()) {
+            ExecutableElement method = entry.getKey();
+            source.line("if (" + literal(method.getSimpleName().toString()) + ".equals(method.getName()) && Arrays.equals("
+                            + parameterTypesFields.get(method) + ", method.getParameterTypes())) {")
+                    .line("    return Optional.of(new RequestStartLine(" + literal(entry.getValue()[0]) + ", HttpMethodType." + entry.getValue()[1] + "));")
+                    .line("}");
+        }
+        source.line("return Optional.empty();")
+                .endMethod();
+
+        write(type, source.endClass());
+    }
+
+    /**
+     * Generates implementation of the endpoint template interface that creates API methods by direct constructor calls,
+     * so TemplateFactory of carina-api does not need a proxy. Default methods are inherited from the interface
+     */
+    private void generateEndpointTemplateImplementation(TypeElement type) {
+        List<ExecutableElement> methods = findAbstractMethods(type);
+        boolean hasTemplateMethods = false;
+        for (ExecutableElement method : methods) {
+            hasTemplateMethods |= findAnnotation(method, ENDPOINT_TEMPLATE_METHOD).isPresent();
+        }
+        if (!hasTemplateMethods) {
+            return;
+        }
+        for (ExecutableElement method : methods) {
+            if (findAnnotation(method, ENDPOINT_TEMPLATE_METHOD).isEmpty()) {
+                // such interfaces were always created by the dynamic proxy, so it is not an error
+                messager.printMessage(Diagnostic.Kind.WARNING, String.format("Abstract method %s of endpoint template %s is not an endpoint "
+                        + "template method, implementation is not generated, annotate it with @EndpointTemplateMethod or make it default",
+                        method.getSimpleName(), type.getQualifiedName()), method);
+                return;
+            }
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedElementException(String.format("Generic interface %s is not supported", type.getSimpleName()));
+        }
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedElementException(String.format("Interface %s is not accessible", type.getSimpleName()));
+            }
+        }
+
+        SourceBuilder source = new SourceBuilder(getPackageName(type), getGeneratedClassName(type, TEMPLATE_CLASS_SUFFIX))
+                .addImport("com.zebrunner.carina.api.binding.MethodBindingPlan")
+                .addImport("com.zebrunner.carina.api.binding.RuntimeMethod")
+                .addImport("java.lang.reflect.Method");
+        source.beginClass(type.getQualifiedName().toString(), isGeneratedAvailable());
+
+        List<String> methodFields = new ArrayList<>();
+        for (int index = 0; index < methods.size(); index++) {
+            ExecutableElement method = methods.get(index);
+            TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+            if (!declaringType.getModifiers().contains(Modifier.PUBLIC) && !getPackageName(declaringType).equals(getPackageName(type))) {
+                throw new UnsupportedElementException(String.format("Interface %s is not accessible", declaringType.getQualifiedName()));
+            }
+            String field = "METHOD_" + index;
+            methodFields.add(field);
+            List<String> arguments = new ArrayList<>();
+            arguments.add(declaringType.getQualifiedName() + ".class");
+            arguments.add(literal(method.getSimpleName().toString()));
+            if (!method.getParameters().isEmpty()) {
+                arguments.add(getParameterTypes(method));
+            }
+            source.line("private static final Method " + field + " = findMethod(" + String.join(", ", arguments) + ");")
+                    .line("private static final MethodBindingPlan PLAN_" + index + " = new MethodBindingPlan(" + field + ");");
+        }
+        source.line("");
+
+        for (int index = 0; index < methods.size(); index++) {
+            ExecutableElement method = methods.get(index);
+            source.beginMethod(getSignature(method));
+            List<String> arguments = new ArrayList<>();
+            for (int i = 0; i < method.getParameters().size(); i++) {
+                arguments.add("arg" + i);
+            }
+            source.line("return new " + getApiMethodClass(method) + "(new RuntimeMethod(this, " + methodFields.get(index)
+                    + ", new Object[] { " + String.join(", ", arguments) + " }, PLAN_" + index + "));");
+            source.endMethod();
+        }
+
+        source.line("private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {")
+                .line("    try {")
+                .line("        return type.getMethod(name, parameterTypes);")
+                .line("    } catch (NoSuchMethodException e) {")
+                .line("        throw new IllegalStateException(e);")
+                .line("    }")
+                .line("}");
+
+        write(type, source.endClass());
+    }
+
+    private List<ExecutableElement> findAbstractMethods(TypeElement type) {
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) || isObjectMethod(method)) {
+                continue;
+            }
+            if (!method.getTypeParameters().isEmpty()) {
+                throw new UnsupportedElementException(String.format("Generic method %s is not supported", method.getSimpleName()));
+            }
+            String signature = method.getSimpleName() + "(" + getParameterTypes(method) + ")";
+            ExecutableElement previous = methods.putIfAbsent(signature, method);
+            if (previous != null && !types.isSameType(previous.getReturnType(), method.getReturnType())) {
+                throw new UnsupportedElementException(String.format("Method %s is declared with different return types", method.getSimpleName()));
+            }
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    private boolean isObjectMethod(ExecutableElement method) {
+        TypeElement objectType = elements.getTypeElement(Object.class.getName());
+        for (ExecutableElement objectMethod : ElementFilter.methodsIn(objectType.getEnclosedElements())) {
+            if (objectMethod.getModifiers().contains(Modifier.PUBLIC) && elements.overrides(method, objectMethod, objectType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getSignature(ExecutableElement method) {
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            parameters.add(method.getParameters().get(i).asType() + " arg" + i);
+        }
+        StringBuilder signature = new StringBuilder()
+                .append(method.getReturnType()).append(' ')
+                .append(method.getSimpleName())
+                .append('(').append(String.join(", ", parameters)).append(')');
+        if (!method.getThrownTypes().isEmpty()) {
+            List<String> thrownTypes = new ArrayList<>();
+            for (TypeMirror thrownType : method.getThrownTypes()) {
+                thrownTypes.add(thrownType.toString());
+            }
+            signature.append(" throws ").append(String.join(", ", thrownTypes));
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Same as TemplateInvocationHandler of carina-api: AbstractApiMethod and AbstractApiMethodV2 are created as
+     * MethodBasedApiMethod, other classes by the constructor with AnnotatedElement parameter
+     */
+    private String getApiMethodClass(ExecutableElement method) {
+        TypeElement returnType = asTypeElement(types.erasure(method.getReturnType()));
+        TypeElement apiMethodType = elements.getTypeElement(ABSTRACT_API_METHOD);
+        if (returnType == null || !types.isSubtype(types.erasure(returnType.asType()), types.erasure(apiMethodType.asType()))) {
+            throw new UnsupportedElementException(String.format("Method %s should return instance of %s class", method.getSimpleName(), ABSTRACT_API_METHOD));
+        }
+        String returnTypeName = returnType.getQualifiedName().toString();
+        if (ABSTRACT_API_METHOD.equals(returnTypeName) || ABSTRACT_API_METHOD_V2.equals(returnTypeName)) {
+            return METHOD_BASED_API_METHOD;
+        }
+        if (returnType.getModifiers().contains(Modifier.ABSTRACT) || !returnType.getModifiers().contains(Modifier.PUBLIC)
+                || returnType.getNestingKind().isNested() && !returnType.getModifiers().contains(Modifier.STATIC)) {
+            throw new UnsupportedElementException(String.format("Class %s can't be instantiated", returnTypeName));
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(returnType.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC) && constructor.getParameters().size() == 1
+                    && types.erasure(constructor.getParameters().get(0).asType()).toString().equals("java.lang.reflect.AnnotatedElement")) {
+                return returnTypeName;
+            }
+        }
+        throw new UnsupportedElementException(String.format("Class %s has no public constructor with AnnotatedElement parameter", returnTypeName));
+    }
+
+    private String getParameterTypes(ExecutableElement method) {
+        List<String> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            TypeMirror parameterType = types.erasure(parameter.asType());
+            Element parameterElement = types.asElement(parameterType);
+            if (parameterElement != null && parameterElement.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedElementException(String.format("Parameter type of the %s method is private", method.getSimpleName()));
+            }
+            parameterTypes.add(parameterType + ".class");
+        }
+        return String.join(", ", parameterTypes);
+    }
+
+    /**
+     * Finds annotation on the first type in the hierarchy (until AbstractApiMethod) that has it, the same way
+     * as ClassAnnotationProcessor of carina-api does: types are grouped by the type that refers to them and
+     * the first group with a single found type is taken
+     */
+    private Optional<FoundAnnotation> findFirstInHierarchy(TypeElement type, String annotationName) {
+        Map<TypeElement, List<TypeElement>> graph = findHierarchyGraph(type, t -> findAnnotation(t, annotationName).isPresent());
+        for (List<TypeElement> level : graph.values()) {
+            if (level.size() == 1) {
+                return findAnnotation(level.get(0), annotationName);
+            }
+            if (level.size() > 1) {
+                throw new UnsupportedElementException(String.format("More than one candidate of %s has been found: %s", annotationName, level));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<FoundAnnotation> findAllInHierarchy(TypeElement type, String annotationName) {
+        Map<TypeElement, List<TypeElement>> graph = findHierarchyGraph(type, t -> findAnnotation(t, annotationName).isPresent());
+        List<FoundAnnotation> result = new ArrayList<>();
+        for (List<TypeElement> level : graph.values()) {
+            for (TypeElement foundType : level) {
+                findAnnotation(foundType, annotationName).ifPresent(result::add);
+            }
+        }
+        return result;
+    }
+
+    private Map<TypeElement, List<TypeElement>> findHierarchyGraph(TypeElement type, Predicate<TypeElement> condition) {
+        Map<TypeElement, List<TypeElement>> graph = new LinkedHashMap<>();
+        findHierarchyGraph(null, type, condition, graph);
+        return graph;
+    }
+
+    private void findHierarchyGraph(TypeElement previousType, TypeElement type, Predicate<TypeElement> condition, Map<TypeElement, List<TypeElement>> graph) {
+        if (type == null || type.getQualifiedName().contentEquals(ABSTRACT_API_METHOD)) {
+            return;
+        }
+        graph.putIfAbsent(previousType, new ArrayList<>());
+        if (condition.test(type)) {
+            graph.get(previousType).add(type);
+        }
+        findHierarchyGraph(type, asTypeElement(type.getSuperclass()), condition, graph);
+        for (TypeMirror anInterface : type.getInterfaces()) {
+            findHierarchyGraph(type, asTypeElement(anInterface), condition, graph);
+        }
+    }
+
+    private static TypeElement asTypeElement(TypeMirror type) {
+        if (type.getKind() == TypeKind.ERROR) {
+            throw new UnsupportedElementException(String.format("Type %s can't be resolved", type));
+        }
+        return type.getKind() == TypeKind.DECLARED
+                ? (TypeElement) ((DeclaredType) type).asElement()
+                : null;
+    }
+
+    /**
+     * Finds annotation declared on the element directly or on its annotations, the same way as
+     * AnnotationProcessorUtils of carina-api does
+     */
+    private Optional<FoundAnnotation> findAnnotation(Element element, String annotationName) {
+        List<FoundAnnotation> found = new ArrayList<>();
+        findAnnotations(null, element.getAnnotationMirrors(), annotationName, new HashSet<>(), found);
+        if (found.size() > 1) {
+            throw new UnsupportedElementException(String.format("More than one candidate of %s has been found on %s", annotationName, element));
+        }
+        return found.stream().findFirst();
+    }
+
+    private static void findAnnotations(AnnotationMirror parent, List<? extends AnnotationMirror> mirrors, String annotationName,
+            Set<String> processedAnnotations, List<FoundAnnotation> found) {
+        for (AnnotationMirror mirror : mirrors) {
+            String name = getName(mirror);
+            if (name.equals(annotationName)) {
+                found.add(new FoundAnnotation(parent, mirror));
+            }
+            if (processedAnnotations.add(name)) {
+                findAnnotations(mirror, mirror.getAnnotationType().asElement().getAnnotationMirrors(), annotationName, processedAnnotations, found);
+            }
+        }
+    }
+
+    /**
+     * Collects values of the repeatable key-value annotation and its List container. The first value of the key wins
+     */
+    private Map<String, String> findKeyValues(TypeElement type, String annotationName) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (FoundAnnotation annotation : findAllInHierarchy(type, annotationName)) {
+            result.putIfAbsent(getString(annotation, "key"), getString(annotation, "value"));
+        }
+        for (FoundAnnotation list : findAllInHierarchy(type, annotationName + ".List")) {
+            @SuppressWarnings("unchecked")
+            List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) list.getValue(elements, "value").getValue();
+            for (AnnotationValue value : values) {
+                FoundAnnotation annotation = new FoundAnnotation(null, (AnnotationMirror) value.getValue());
+                result.putIfAbsent(getString(annotation, "key"), getString(annotation, "value"));
+            }
+        }
+        return result;
+    }
+
+    private String getString(FoundAnnotation annotation, String name) {
+        return (String) annotation.getValue(elements, name).getValue();
+    }
+
+    private String getEnumName(FoundAnnotation annotation, String name) {
+        return ((VariableElement) annotation.getValue(elements, name).getValue()).getSimpleName().toString();
+    }
+
+    private String optionalString(Optional<FoundAnnotation> annotation, String name) {
+        return annotation.map(a -> "Optional.of(" + literal(getString(a, name)) + ")")
+                .orElse("Optional.empty()");
+    }
+
+    private static String toMapExpression(Map<String, String> values) {
+        if (values.isEmpty()) {
+            return "Map.of()";
+        }
+        List<String> entries = new ArrayList<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            entries.add("Map.entry(" + literal(entry.getKey()) + ", " + literal(entry.getValue()) + ")");
+        }
+        return "Map.ofEntries(" + String.join(", ", entries) + ")";
+    }
+
+    /**
+     * Same as MethodBasedContextResolver of carina-api
+     */
+    private static String buildPath(String... pathSlices) {
+        List<String> preparedSlices = new ArrayList<>();
+        for (String pathSlice : pathSlices) {
+            preparedSlices.add(preparePathSlice(pathSlice));
+        }
+        return String.join("/", preparedSlices);
+    }
+
+    private static String preparePathSlice(String pathSlice) {
+        if (pathSlice.startsWith("/")) {
+            pathSlice = pathSlice.substring(1);
+        } else if (pathSlice.endsWith("/")) {
+            pathSlice = pathSlice.substring(0, pathSlice.lastIndexOf('/'));
+        } else {
+            return pathSlice;
+        }
+        return preparePathSlice(pathSlice);
+    }
+
+    static String getName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private String getPackageName(TypeElement type) {
+        return elements.getPackageOf(type).getQualifiedName().toString();
+    }
+
+    /**
+     * Same as GeneratedMetadata#getGeneratedClassName of carina-api: nested class names are joined by underscore
+     */
+    private String getGeneratedClassName(TypeElement type, String suffix) {
+        String packageName = getPackageName(type);
+        String binaryName = elements.getBinaryName(type).toString();
+        String className = packageName.isEmpty()
+                ? binaryName
+                : binaryName.substring(packageName.length() + 1);
+        return className.replace('$', '_') + suffix;
+    }
+
+    private boolean isGeneratedAvailable() {
+        return elements.getTypeElement(GENERATED) != null;
+    }
+
+    private void write(TypeElement type, SourceBuilder source) {
+        try (Writer writer = filer.createSourceFile(source.getQualifiedName(), type).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write generated class for " + type.getQualifiedName(), e);
+        }
+    }
+
+    static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+            case '"':
+                literal.append("\\\"");
+                break;
+            case '\\':
+                literal.append("\\\\");
+                break;
+            case '\n':
+                literal.append("\\n");
+                break;
+            case '\r':
+                literal.append("\\r");
+                break;
+            case '\t':
+                literal.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    literal.append(String.format("\\u%04x", (int) c));
+                } else {
+                    literal.append(c);
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
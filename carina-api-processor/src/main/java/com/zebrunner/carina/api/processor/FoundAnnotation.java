@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import java.util.Map;
+
+/**
+ * Annotation found on an element directly or through another annotation. Values are taken the same way as
+ * carina-api does it at runtime: fields of the annotation marked by {@code @RelatedTo} override the values
+ * of the found annotation
+ */
+class FoundAnnotation {
+
+    private static final String RELATED_TO = "com.zebrunner.carina.api.apitools.annotation.processor.RelatedTo";
+
+    private final AnnotationMirror parent;
+    private final AnnotationMirror annotation;
+
+    FoundAnnotation(AnnotationMirror parent, AnnotationMirror annotation) {
+        this.parent = parent;
+        this.annotation = annotation;
+    }
+
+    AnnotationValue getValue(Elements elements, String name) {
+        if (parent != null) {
+            TypeElement parentType = (TypeElement) parent.getAnnotationType().asElement();
+            for (ExecutableElement method : ElementFilter.methodsIn(parentType.getEnclosedElements())) {
+                if (isRelatedTo(method, name)) {
+                    return getValue(elements, parent, method.getSimpleName().toString());
+                }
+            }
+        }
+        return getValue(elements, annotation, name);
+    }
+
+    private boolean isRelatedTo(ExecutableElement method, String name) {
+        String annotationName = EndpointMetadataProcessor.getName(annotation);
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (RELATED_TO.equals(EndpointMetadataProcessor.getName(mirror))) {
+                Map<? extends ExecutableElement, ? extends AnnotationValue> values = mirror.getElementValues();
+                String annotationClass = null;
+                String field = null;
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+                    String key = entry.getKey().getSimpleName().toString();
+                    if ("annotationClass".equals(key)) {
+                        annotationClass = ((TypeElement) ((DeclaredType) entry.getValue().getValue()).asElement())
+                                .getQualifiedName().toString();
+                    } else if ("field".equals(key)) {
+                        field = (String) entry.getValue().getValue();
+                    }
+                }
+                return annotationName.equals(annotationClass) && name.equals(field);
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationValue getValue(Elements elements, AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        throw new UnsupportedElementException(String.format("Value '%s' is not found in %s", name, mirror));
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.processor;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds source code of a generated metadata class
+ */
+class SourceBuilder {
+
+    private static final String INDENT = "    ";
+
+    private final String packageName;
+    private final String className;
+    private final Set<String> imports = new TreeSet<>();
+    private final StringBuilder body = new StringBuilder();
+    private int indent;
+
+    SourceBuilder(String packageName, String className) {
+        this.packageName = packageName;
+        this.className = className;
+    }
+
+    String getQualifiedName() {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    SourceBuilder addImport(String qualifiedName) {
+        imports.add(qualifiedName);
+        return this;
+    }
+
+    SourceBuilder beginClass(String interfaceName, boolean generatedAnnotation) {
+        if (generatedAnnotation) {
+            line("@javax.annotation.processing.Generated(\"" + EndpointMetadataProcessor.class.getName() + "\")");
+        }
+        line("public final class " + className + " implements " + interfaceName + " {");
+        indent++;
+        line("");
+        return this;
+    }
+
+    SourceBuilder beginMethod(String signature) {
+        line("@Override");
+        line("public " + signature + " {");
+        indent++;
+        return this;
+    }
+
+    SourceBuilder endMethod() {
+        indent--;
+        line("}");
+        line("");
+        return this;
+    }
+
+    SourceBuilder endClass() {
+        if (body.length() > 1 && body.charAt(body.length() - 2) == '\n') {
+            body.setLength(body.length() - 1);
+        }
+        indent--;
+        line("}");
+        return this;
+    }
+
+    SourceBuilder line(String line) {
+        if (!line.isEmpty()) {
+            body.append(INDENT.repeat(indent)).append(line);
+        }
+        body.append('\n');
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        for (String anImport : imports) {
+            source.append("import ").append(anImport).append(";\n");
+        }
+        return source.append('\n').append(body).toString();
+    }
+}
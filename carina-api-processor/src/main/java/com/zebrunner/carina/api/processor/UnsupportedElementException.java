@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.processor;
+
+/**
+ * Thrown when metadata of the element can't be resolved at compile time the same way as at runtime,
+ * so annotations of the element should be resolved by reflection
+ */
+class UnsupportedElementException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedElementException(String message) {
+        super(message);
+    }
+}
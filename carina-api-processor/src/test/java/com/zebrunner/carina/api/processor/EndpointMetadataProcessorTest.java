@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.processor;
+
+import com.zebrunner.carina.api.AbstractApiMethodV2;
+import com.zebrunner.carina.api.binding.TemplateFactory;
+import com.zebrunner.carina.api.http.HttpMethodType;
+import com.zebrunner.carina.api.http.HttpResponseStatusType;
+import com.zebrunner.carina.api.resolver.ContextResolverChain;
+import com.zebrunner.carina.api.resolver.EndpointMetadata;
+import com.zebrunner.carina.api.resolver.EndpointTemplateMetadata;
+import com.zebrunner.carina.api.resolver.RequestStartLine;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class EndpointMetadataProcessorTest {
+
+    private static final String BASE_METHOD = "package test;\n"
+            + "import com.zebrunner.carina.api.AbstractApiMethodV2;\n"
+            + "import com.zebrunner.carina.api.annotation.*;\n"
+            + "@Header(key = \"Accept-Language\", value = \"en\")\n"
+            + "@Cookie(key = \"session\", value = \"base\")\n"
+            + "@ContentType(type = \"application/xml\")\n"
+            + "public abstract class BaseMethod extends AbstractApiMethodV2 {\n"
+            + "}\n";
+
+    private static final String USER_METHOD = "package test;\n"
+            + "import com.zebrunner.carina.api.annotation.*;\n"
+            + "import com.zebrunner.carina.api.http.*;\n"
+            + "@Endpoint(url = \"${base_url}/users/\\\"1\\\"\", methodType = HttpMethodType.GET)\n"
+            + "@Header(key = \"X-Id\", value = \"1\")\n"
+            + "@Header(key = \"Accept-Language\", value = \"de\")\n"
+            + "@SuccessfulHttpStatus(status = HttpResponseStatusType.CREATED_201, messageOverride = \"Done\")\n"
+            + "@ResponseTemplatePath(path = \"api/users/rs.json\")\n"
+            + "public class UserMethod extends BaseMethod {\n"
+            + "    public static class Nested extends BaseMethod {\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String USER_TEMPLATE = "package test;\n"
+            + "import com.zebrunner.carina.api.AbstractApiMethodV2;\n"
+            + "import com.zebrunner.carina.api.annotation.*;\n"
+            + "import com.zebrunner.carina.api.annotation.method.*;\n"
+            + "import com.zebrunner.carina.api.http.*;\n"
+            + "@EndpointTemplate(url = \"http://localhost/api/\")\n"
+            + "public interface UserTemplate {\n"
+            + "    @GetMethod(url = \"/users/${id}\")\n"
+            + "    AbstractApiMethodV2 getUser(@PathParam(key = \"id\") long id);\n"
+            + "    @EndpointTemplateMethod(url = \"users\", methodType = HttpMethodType.POST)\n"
+            + "    @RequestTemplatePath(path = \"api/users/rq.json\")\n"
+            + "    AbstractApiMethodV2 createUser(String[] names);\n"
+            + "    default AbstractApiMethodV2 getAdmin() {\n"
+            + "        return getUser(0);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String INVALID_TEMPLATE = "package test;\n"
+            + "import com.zebrunner.carina.api.AbstractApiMethodV2;\n"
+            + "import com.zebrunner.carina.api.annotation.method.*;\n"
+            + "public interface InvalidTemplate {\n"
+            + "    @GetMethod(url = \"/users\")\n"
+            + "    AbstractApiMethodV2 getUsers();\n"
+            + "    AbstractApiMethodV2 getAdmin();\n"
+            + "}\n";
+
+    private Path output;
+    private ClassLoader classLoader;
+
+    @BeforeClass
+    public void compile() throws IOException {
+        output = Files.createTempDirectory("carina-api-processor");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-d", output.toString(), "-s", output.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, List.of(source("test.BaseMethod", BASE_METHOD), source("test.UserMethod", USER_METHOD),
+                            source("test.UserTemplate", USER_TEMPLATE)));
+            task.setProcessors(List.of(new EndpointMetadataProcessor()));
+            Assert.assertTrue(task.call(), "Compilation failed: " + diagnostics.getDiagnostics());
+        }
+        classLoader = new URLClassLoader(new URL[] { output.toUri().toURL() }, getClass().getClassLoader());
+    }
+
+    @Test
+    public void testEndpointMetadata() throws ReflectiveOperationException {
+        Class<?> userMethod = classLoader.loadClass("test.UserMethod");
+        EndpointMetadata metadata = (EndpointMetadata) classLoader.loadClass("test.UserMethod_ApiMetadata")
+                .getDeclaredConstructor().newInstance();
+
+        RequestStartLine startLine = metadata.getStartLine().orElseThrow();
+        Assert.assertEquals(startLine.getUrl(), "${base_url}/users/\"1\"");
+        Assert.assertEquals(startLine.getMethodType(), HttpMethodType.GET);
+        Assert.assertEquals(metadata.getContentType().orElseThrow(), "application/xml");
+        Assert.assertTrue(metadata.getRequestTemplatePath().isEmpty());
+        Assert.assertEquals(metadata.getSuccessfulHttpStatus().orElseThrow().getCode(), 201);
+        Assert.assertEquals(metadata.getSuccessfulHttpStatus().orElseThrow().getMessage(), "Done");
+        // as at runtime, single annotations of the hierarchy win over repeated ones
+        Assert.assertEquals(metadata.getHeaders(), Map.of("X-Id", "1", "Accept-Language", "en"));
+        Assert.assertEquals(metadata.getCookies(), Map.of("session", "base"));
+
+        Assert.assertEquals(ContextResolverChain.resolveUrl(userMethod).orElseThrow().getUrl(), startLine.getUrl());
+        Assert.assertEquals(ContextResolverChain.resolveHeaders(userMethod).orElseThrow(), metadata.getHeaders());
+    }
+
+    @Test
+    public void testNestedEndpointMetadata() throws ReflectiveOperationException {
+        EndpointMetadata metadata = (EndpointMetadata) classLoader.loadClass("test.UserMethod_Nested_ApiMetadata")
+                .getDeclaredConstructor().newInstance();
+        Assert.assertTrue(metadata.getStartLine().isEmpty());
+        Assert.assertEquals(metadata.getHeaders(), Map.of("Accept-Language", "en"));
+    }
+
+    @Test
+    public void testEndpointTemplateMetadata() throws ReflectiveOperationException {
+        Class<?> template = classLoader.loadClass("test.UserTemplate");
+        EndpointTemplateMetadata metadata = (EndpointTemplateMetadata) classLoader.loadClass("test.UserTemplate_ApiMetadata")
+                .getDeclaredConstructor().newInstance();
+
+        RequestStartLine getUser = metadata.getStartLine(template.getMethod("getUser", long.class)).orElseThrow();
+        Assert.assertEquals(getUser.getUrl(), "http://localhost/api/users/${id}");
+        Assert.assertEquals(getUser.getMethodType(), HttpMethodType.GET);
+
+        RequestStartLine createUser = metadata.getStartLine(template.getMethod("createUser", String[].class)).orElseThrow();
+        Assert.assertEquals(createUser.getUrl(), "http://localhost/api/users");
+        Assert.assertEquals(createUser.getMethodType(), HttpMethodType.POST);
+    }
+
+    @Test
+    public void testEndpointTemplateImplementation() throws ReflectiveOperationException {
+        Class<?> template = classLoader.loadClass("test.UserTemplate");
+        Object implementation = TemplateFactory.prepareTemplate(template);
+        Assert.assertFalse(Proxy.isProxyClass(implementation.getClass()));
+        Assert.assertEquals(implementation.getClass().getName(), "test.UserTemplate_ApiTemplate");
+
+        AbstractApiMethodV2 getUser = (AbstractApiMethodV2) template.getMethod("getUser", long.class).invoke(implementation, 5L);
+        Assert.assertEquals(getUser.getMethodPath(), "http://localhost/api/users/5");
+
+        AbstractApiMethodV2 getAdmin = (AbstractApiMethodV2) template.getMethod("getAdmin").invoke(implementation);
+        Assert.assertEquals(getAdmin.getMethodPath(), "http://localhost/api/users/0");
+    }
+
+    @Test
+    public void testTemplateIndex() throws IOException {
+        Assert.assertEquals(Files.readAllLines(output.resolve(EndpointMetadataProcessor.TEMPLATE_INDEX)),
+                List.of("api/users/rq.json", "api/users/rs.json"));
+    }
+
+    @Test
+    public void testNotTemplateMethodIsReported() throws IOException {
+        Path invalidOutput = Files.createTempDirectory("carina-api-processor");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-d", invalidOutput.toString(), "-s", invalidOutput.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, List.of(source("test.InvalidTemplate", INVALID_TEMPLATE)));
+            task.setProcessors(List.of(new EndpointMetadataProcessor()));
+            Assert.assertTrue(task.call(), "Template with not template method is not compiled: " + diagnostics.getDiagnostics());
+        }
+        Assert.assertTrue(diagnostics.getDiagnostics().stream()
+                .anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING
+                        && diagnostic.getMessage(null).contains("getAdmin")), "Warning is not reported: " + diagnostics.getDiagnostics());
+        Assert.assertFalse(Files.exists(invalidOutput.resolve("test/InvalidTemplate_ApiTemplate.java")), "Implementation should not be generated");
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', File.separatorChar) + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
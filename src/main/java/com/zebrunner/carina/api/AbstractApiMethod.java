@@ -16,32 +16,36 @@
 package com.zebrunner.carina.api;
 
 import com.zebrunner.carina.api.config.APIConfiguration;
+import com.zebrunner.carina.api.http.ConnectionPool;
 import com.zebrunner.carina.api.http.ContentTypeEnum;
 import com.zebrunner.carina.api.http.HttpClient;
 import com.zebrunner.carina.api.http.HttpMethodType;
 import com.zebrunner.carina.api.http.HttpResponseStatus;
 import com.zebrunner.carina.api.http.HttpResponseStatusType;
+import com.zebrunner.carina.api.http.StreamingBody;
+import com.zebrunner.carina.api.http.Transport;
 import com.zebrunner.carina.api.interceptor.InterceptorChain;
 import com.zebrunner.carina.api.log.CarinaRequestBodyLoggingFilter;
 import com.zebrunner.carina.api.log.CarinaResponseBodyLoggingFilter;
 import com.zebrunner.carina.api.log.CarinaResponseHeadersLoggingFilter;
 import com.zebrunner.carina.api.log.LoggingOutputStream;
-import com.zebrunner.carina.api.resolver.ContextResolverChain;
+import com.zebrunner.carina.api.resolver.ApiMethodDefinition;
 import com.zebrunner.carina.api.resolver.RequestStartLine;
+import com.zebrunner.carina.api.resolver.UrlTemplate;
 import com.zebrunner.carina.api.ssl.NullHostnameVerifier;
 import com.zebrunner.carina.api.ssl.NullX509TrustManager;
 import com.zebrunner.carina.api.ssl.SSLContextBuilder;
 import com.zebrunner.carina.utils.config.Configuration;
-import com.zebrunner.carina.utils.config.StandardConfigurationOption;
 import io.restassured.RestAssured;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.config.SSLConfig;
 import io.restassured.filter.log.LogDetail;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.RequestSpecification;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.conn.ssl.SSLSocketFactory;
 import org.hamcrest.Matcher;
@@ -53,17 +57,20 @@ import org.slf4j.event.Level;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.AnnotatedElement;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.restassured.RestAssured.given;
 
@@ -72,14 +79,17 @@ public abstract class AbstractApiMethod extends HttpClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     private final AnnotatedElement anchorElement;
+    private final ApiMethodDefinition definition;
     private final InterceptorChain interceptorChain;
 
     private StringBuilder bodyContent;
+    private StreamingBody streamingBody;
     protected String methodPath;
     protected HttpMethodType methodType;
     protected Object response;
     protected RequestSpecification request;
     protected ContentTypeEnum contentTypeEnum;
+    private Transport transport = HttpClient.getTransport();
     private boolean logRequest = Configuration.getRequired(APIConfiguration.Parameter.LOG_ALL_JSON, Boolean.class);
     private boolean logResponse = Configuration.getRequired(APIConfiguration.Parameter.LOG_ALL_JSON, Boolean.class);
     private boolean ignoreSSL = Configuration.getRequired(APIConfiguration.Parameter.IGNORE_SSL, Boolean.class);
@@ -94,62 +104,27 @@ public abstract class AbstractApiMethod extends HttpClient {
                 ? anchorElement
                 : this.getClass();
 
+        this.definition = ApiMethodDefinition.of(this.anchorElement);
         this.interceptorChain = new InterceptorChain(this, this.anchorElement);
 
-        RequestStartLine requestStartLine = ContextResolverChain.resolveUrl(this.anchorElement)
+        RequestStartLine requestStartLine = definition.getStartLine()
                 .orElseThrow(() -> new RuntimeException("Method type and path are not specified for: " + this.getClass().getSimpleName()));
 
-        this.methodPath = requestStartLine.getUrl();
+        this.methodPath = UrlTemplate.compile(requestStartLine.getUrl())
+                .expand(definition.getPathParams().orElse(Map.of()));
         this.methodType = requestStartLine.getMethodType();
         this.bodyContent = new StringBuilder();
-        this.request = given();
+        this.request = given().config(ConnectionPool.config());
 
         initContentTypeFromAnnotation();
-        replaceUrlPlaceholders();
 
-        ContextResolverChain.resolveQueryParams(anchorElement)
+        definition.getQueryParams()
                 .ifPresent(queryParams -> request.queryParams(queryParams));
     }
 
     private void initContentTypeFromAnnotation() {
-        String contentType = ContextResolverChain.resolveContentType(this.anchorElement)
-                .orElse(ContentTypeEnum.JSON.getMainStringValue());
-        this.request.contentType(contentType);
-        this.contentTypeEnum = Arrays.stream(ContentTypeEnum.values())
-                .filter(type -> ArrayUtils.contains(type.getStringValues(), contentType))
-                .findFirst()
-                .orElse(ContentTypeEnum.NA);
-    }
-
-    private void replaceUrlPlaceholders() {
-        final String envParam = "config.env.";
-        final String configParam = "config.";
-        List<String> params = getParamsFromUrl();
-        for (String param : params) {
-            if (param != null) {
-                if (param.startsWith(envParam)) {
-                    String newParam = StringUtils.substringAfter(param, envParam);
-                    replaceUrlPlaceholder(param, Configuration.get(newParam, StandardConfigurationOption.ENVIRONMENT).orElse(""));
-                } else if (param.startsWith(configParam)) {
-                    String newParam = StringUtils.substringAfter(param, configParam);
-                    replaceUrlPlaceholder(param, Configuration.get(newParam, StandardConfigurationOption.GLOBAL).orElse(""));
-                }
-            }
-        }
-
-        ContextResolverChain.resolvePathParams(anchorElement)
-                .ifPresent(pathParams -> pathParams.forEach((key, value) -> replaceUrlPlaceholder(key, value.toString())));
-    }
-
-    private List<String> getParamsFromUrl() {
-        List<String> params = new ArrayList<>();
-        String path = methodPath;
-        while (path.contains("{")) {
-            String param = StringUtils.substringBetween(path, "${", "}");
-            params.add(param);
-            path = StringUtils.substringAfter(path, "}");
-        }
-        return params;
+        this.request.contentType(definition.getContentType());
+        this.contentTypeEnum = definition.getContentTypeEnum();
     }
 
     public void setHeaders(String... headerKeyValues) {
@@ -245,7 +220,7 @@ public abstract class AbstractApiMethod extends HttpClient {
 
     private void initLogging(PrintStream ps) {
         if (logRequest) {
-            Set<String> headers = ContextResolverChain.resolveHiddenRequestHeadersInLogs(this.anchorElement)
+            Set<String> headers = definition.getHiddenRequestHeaders()
                     .orElse(Collections.emptySet());
             RequestLoggingFilter fHeaders = new RequestLoggingFilter(LogDetail.HEADERS, true, ps, true, headers);
 
@@ -254,21 +229,21 @@ public abstract class AbstractApiMethod extends HttpClient {
             RequestLoggingFilter fMethod = new RequestLoggingFilter(LogDetail.METHOD, ps);
             RequestLoggingFilter fUri = new RequestLoggingFilter(LogDetail.URI, ps);
 
-            RequestLoggingFilter fBody = ContextResolverChain.resolveHiddenRequestBodyPartsInLogs(this.anchorElement)
+            RequestLoggingFilter fBody = definition.getHiddenRequestBodyParts()
                     .<RequestLoggingFilter>map(paths -> new CarinaRequestBodyLoggingFilter(true, ps, paths, contentTypeEnum))
                     .orElseGet(() -> new RequestLoggingFilter(LogDetail.BODY, ps));
             request.filters(fMethod, fUri, fParams, fCookies, fHeaders, fBody);
         }
 
         if (logResponse) {
-            Set<String> headers = ContextResolverChain.resolveHiddenResponseHeadersInLogs(this.anchorElement)
+            Set<String> headers = definition.getHiddenResponseHeaders()
                     .orElse(Collections.emptySet());
             ResponseLoggingFilter fHeaders = new CarinaResponseHeadersLoggingFilter(true, ps, Matchers.any(Integer.class), headers);
 
             ResponseLoggingFilter fStatus = new ResponseLoggingFilter(LogDetail.STATUS, ps);
             ResponseLoggingFilter fCookies = new ResponseLoggingFilter(LogDetail.COOKIES, ps);
 
-            ResponseLoggingFilter fBody = ContextResolverChain.resolveHiddenResponseBodyPartsInLogs(this.anchorElement)
+            ResponseLoggingFilter fBody = definition.getHiddenResponseBodyParts()
                     .<ResponseLoggingFilter>map(paths -> new CarinaResponseBodyLoggingFilter(true, ps, Matchers.any(Integer.class), paths, contentTypeEnum))
                     .orElseGet(() -> new ResponseLoggingFilter(LogDetail.BODY, ps));
             request.filters(fBody, fCookies, fHeaders, fStatus);
@@ -279,35 +254,128 @@ public abstract class AbstractApiMethod extends HttpClient {
         return callAPI(new LoggingOutputStream(LOGGER, Level.INFO));
     }
 
+    /**
+     * Calls API asynchronously using the default executor. The size of its thread pool is taken from the
+     * {@link APIConfiguration.Parameter#API_ASYNC_POOL_SIZE} parameter.
+     * See {@link #callAPIAsync(Executor)} about blocking
+     *
+     * @return future that is completed with the restassured Response object when the call is finished
+     */
+    public CompletableFuture<Response> callAPIAsync() {
+        return callAPIAsync(AsyncExecutorHolder.EXECUTOR);
+    }
+
+    /**
+     * Calls API asynchronously. Interceptors are called and logging is initialized on the calling thread, the request is
+     * sent by {@link Transport#sendAsync}. For {@link AbstractApiMethodV2} the actual response body is stored before the
+     * returned future is completed, so response validation methods can be used after it.<br>
+     * {@link com.zebrunner.carina.api.http.JdkHttpTransport} does not hold a thread while it waits for the response,
+     * restassured filters (logging, response expectations) are applied on the executor when the response is received.
+     * Other transports hold one executor thread for the whole round trip of the request
+     *
+     * @param executor executor that will make the API call
+     * @return future that is completed with the restassured Response object when the call is finished
+     */
+    public CompletableFuture<Response> callAPIAsync(Executor executor) {
+        return callAPIAsync(new LoggingOutputStream(LOGGER, Level.INFO), executor);
+    }
+
     Response callAPI(LoggingOutputStream outputStream) {
+        StreamingBody body = prepareRequest();
+        PrintStream ps = prepareLogging(outputStream);
+
+        getInterceptorChain().onBeforeCall();
+
+        Response rs;
+        try {
+            rs = transport.send(request, methodPath, methodType);
+        } finally {
+            release(ps, body);
+        }
+
+        getInterceptorChain().onAfterCall();
+
+        return rs;
+    }
+
+    CompletableFuture<Response> callAPIAsync(LoggingOutputStream outputStream, Executor executor) {
+        StreamingBody body = prepareRequest();
+        PrintStream ps = prepareLogging(outputStream);
+
+        getInterceptorChain().onBeforeCall();
+
+        CompletableFuture<Response> future;
+        try {
+            future = transport.sendAsync(request, methodPath, methodType, executor);
+        } catch (RuntimeException e) {
+            release(ps, body);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((rs, e) -> release(ps, body))
+                .thenApply(rs -> {
+                    getInterceptorChain().onAfterCall();
+                    return rs;
+                });
+    }
+
+    /**
+     * @return copy of the streaming body set to the request, or null if the request has no streaming body
+     */
+    private StreamingBody prepareRequest() {
         if (ignoreSSL) {
             ignoreSSLCerts();
         }
 
-        if (bodyContent.length() != 0) {
+        // each request writes its own copy of the streaming body, so the method can be called several times
+        StreamingBody body = streamingBody != null ? streamingBody.newStream() : null;
+        if (body != null) {
+            request.body(body);
+            encodeAsStream();
+        } else if (bodyContent.length() != 0) {
             request.body(bodyContent.toString());
         }
+        return body;
+    }
 
+    private PrintStream prepareLogging(LoggingOutputStream outputStream) {
         PrintStream ps = null;
         if (logRequest || logResponse) {
             ps = new PrintStream(outputStream);
             initLogging(ps);
         }
+        return ps;
+    }
 
-        getInterceptorChain().onBeforeCall();
-
-        Response rs;
-        try {
-            rs = HttpClient.send(request, methodPath, methodType);
-        } finally {
-            if (ps != null) {
-                ps.close();
-            }
+    private static void release(PrintStream ps, StreamingBody body) {
+        if (ps != null) {
+            ps.close();
+        }
+        if (body != null) {
+            closeQuietly(body);
         }
+    }
 
-        getInterceptorChain().onAfterCall();
+    /**
+     * Restassured encoders of json and xml content types read an input stream body into a byte array,
+     * so the content type of the streaming body is encoded as binary data to send it with chunked transfer encoding
+     */
+    private void encodeAsStream() {
+        String contentType = ((FilterableRequestSpecification) request).getContentType();
+        if (contentType == null) {
+            return;
+        }
+        String mimeType = StringUtils.substringBefore(contentType, ";").trim();
+        RestAssuredConfig config = getRequestConfig();
+        request = request.config(config.encoderConfig(config.getEncoderConfig()
+                .encodeContentTypeAs(mimeType, ContentType.BINARY)));
+    }
 
-        return rs;
+    private static void closeQuietly(StreamingBody body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            LOGGER.debug("Unable to close streaming body: {}", e.getMessage());
+        }
     }
 
     public void expectInResponse(Matcher<?> matcher) {
@@ -329,6 +397,18 @@ public abstract class AbstractApiMethod extends HttpClient {
 
     public void setBodyContent(String content) {
         this.bodyContent = new StringBuilder(content);
+        this.streamingBody = null;
+    }
+
+    /**
+     * Sets the request body that is written while the request is sent, see {@link StreamingBody}.
+     * Body content set before is discarded
+     *
+     * @param streamingBody streaming body, a new stream is written for each request, see {@link StreamingBody#newStream()}
+     */
+    public void setStreamingBody(StreamingBody streamingBody) {
+        this.streamingBody = streamingBody;
+        this.bodyContent = new StringBuilder();
     }
 
     public RequestSpecification getRequest() {
@@ -355,6 +435,16 @@ public abstract class AbstractApiMethod extends HttpClient {
         this.logResponse = logResponse;
     }
 
+    /**
+     * Sets transport used to send the request instead of the one selected by the
+     * {@link APIConfiguration.Parameter#API_TRANSPORT} parameter
+     *
+     * @param transport see {@link Transport}
+     */
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
     public void ignoreSSLCerts() {
         SSLContext sslContext = null;
         try {
@@ -374,9 +464,7 @@ public abstract class AbstractApiMethod extends HttpClient {
         sslConfig = sslConfig.sslSocketFactory(socketFactory);
         sslConfig = sslConfig.x509HostnameVerifier(new NullHostnameVerifier());
 
-        RestAssuredConfig cfg = new RestAssuredConfig();
-        cfg = cfg.sslConfig(sslConfig);
-        request = request.config(cfg);
+        request = request.config(getRequestConfig().sslConfig(sslConfig));
     }
 
     public void setSSLContext(SSLContext sslContext) {
@@ -384,9 +472,15 @@ public abstract class AbstractApiMethod extends HttpClient {
         SSLConfig sslConfig = new SSLConfig();
         sslConfig = sslConfig.sslSocketFactory(socketFactory);
 
-        RestAssuredConfig cfg = new RestAssuredConfig();
-        cfg = cfg.sslConfig(sslConfig);
-        request = request.config(cfg);
+        request = request.config(getRequestConfig().sslConfig(sslConfig));
+    }
+
+    /**
+     * @return configuration of the request, it keeps the shared connection pool set by {@link ConnectionPool#config()}
+     */
+    private RestAssuredConfig getRequestConfig() {
+        RestAssuredConfig config = ((FilterableRequestSpecification) request).getConfig();
+        return config != null ? config : ConnectionPool.config();
     }
 
     public void setDefaultTLSSupport() {
@@ -397,7 +491,37 @@ public abstract class AbstractApiMethod extends HttpClient {
         return anchorElement;
     }
 
+    /**
+     * Returns resolved description of the API method. It is immutable and shared between all instances of the API
+     * method class, so it can be safely used from any thread
+     *
+     * @return see {@link ApiMethodDefinition}
+     */
+    public ApiMethodDefinition getDefinition() {
+        return definition;
+    }
+
     InterceptorChain getInterceptorChain() {
         return interceptorChain;
     }
+
+    private static final class AsyncExecutorHolder {
+
+        private static final ExecutorService EXECUTOR;
+
+        static {
+            int poolSize = Configuration.get(APIConfiguration.Parameter.API_ASYNC_POOL_SIZE, Integer.class)
+                    .orElse(Runtime.getRuntime().availableProcessors() * 2);
+            AtomicInteger threadNumber = new AtomicInteger();
+            EXECUTOR = Executors.newFixedThreadPool(poolSize, runnable -> {
+                Thread thread = new Thread(runnable, "carina-api-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private AsyncExecutorHolder() {
+            // hide
+        }
+    }
 }
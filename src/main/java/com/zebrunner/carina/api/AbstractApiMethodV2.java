@@ -16,8 +16,10 @@
 package com.zebrunner.carina.api;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zebrunner.carina.api.annotation.ContentType;
+import com.zebrunner.carina.api.apitools.builder.LayeredProperties;
 import com.zebrunner.carina.api.apitools.builder.PropertiesProcessor;
 import com.zebrunner.carina.api.apitools.builder.PropertiesProcessorMain;
 import com.zebrunner.carina.api.apitools.message.TemplateMessage;
@@ -26,9 +28,11 @@ import com.zebrunner.carina.api.apitools.validation.JsonKeywordsComparator;
 import com.zebrunner.carina.api.apitools.validation.JsonValidator;
 import com.zebrunner.carina.api.apitools.validation.XmlCompareMode;
 import com.zebrunner.carina.api.apitools.validation.XmlValidator;
+import com.zebrunner.carina.api.config.APIConfiguration;
 import com.zebrunner.carina.api.http.HttpResponseStatus;
+import com.zebrunner.carina.api.http.StreamingBody;
 import com.zebrunner.carina.api.log.LoggingOutputStream;
-import com.zebrunner.carina.api.resolver.ContextResolverChain;
+import com.zebrunner.carina.utils.config.Configuration;
 import io.restassured.response.Response;
 import org.json.JSONException;
 import org.skyscreamer.jsonassert.JSONAssert;
@@ -44,11 +48,16 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.AnnotatedElement;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
 
@@ -57,11 +66,18 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final String PROPERTIES_NOT_INITIALIZED_EXCEPTION = "API method properties are not initialized!";
     private static final String RESPONSE_BODY_IS_NULL_EXCEPTION = "Actual response body is null. Please make API call before validation response";
+    // properties files are loaded once and shared by all API methods as the base layer of their properties
+    private static final Map<String, Map<Object, Object>> PROPERTIES_SNAPSHOTS = new ConcurrentHashMap<>();
     private Properties properties;
     private List<Class<? extends PropertiesProcessor>> ignoredPropertiesProcessorClasses;
     private String rqPath;
     private String rsPath;
     private String actualRsBody;
+    // response body parsed by jackson, it is reused while the response body is the same
+    private String parsedRsBody;
+    private JsonNode responseJson;
+    private boolean requestTemplateStreaming = Configuration.get(APIConfiguration.Parameter.API_REQUEST_TEMPLATE_STREAMING, Boolean.class)
+            .orElse(false);
 
     /**
      * When this constructor is called then paths to request and expected response templates are taken from @RequestTemplatePath
@@ -99,9 +115,9 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
     private void initProperties(Properties properties) {
         if (properties == null) {
             properties = loadProperties(
-                    ContextResolverChain.resolvePropertiesPath(getAnchorElement())
+                    getDefinition().getPropertiesPath()
                             .orElse(null)
-            ).orElse(new Properties());
+            ).orElseGet(LayeredProperties::new);
         }
         setProperties(properties);
     }
@@ -109,20 +125,20 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
     private void initHeaders() {
         setHeaders(ACCEPT_ALL_HEADER);
 
-        ContextResolverChain.resolveHeaders(getAnchorElement())
+        getDefinition().getHeaders()
                 .ifPresent(headers -> headers.forEach(this::setHeader));
 
-        ContextResolverChain.resolveCookies(getAnchorElement())
+        getDefinition().getCookies()
                 .ifPresent(this::addCookies);
     }
 
     private void initPaths(String rqPath, String rsPath) {
         this.rqPath = rqPath != null
                 ? rqPath
-                : ContextResolverChain.resolveRequestTemplatePath(getAnchorElement()).orElse(null);
+                : getDefinition().getRequestTemplatePath().orElse(null);
         this.rsPath = rsPath != null
                 ? rsPath
-                : ContextResolverChain.resolveResponseTemplatePath(getAnchorElement()).orElse(null);
+                : getDefinition().getResponseTemplatePath().orElse(null);
     }
 
     /**
@@ -143,6 +159,16 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
         this.rsPath = path;
     }
 
+    /**
+     * Enables or disables streaming of the request template directly into the request entity,
+     * see {@link APIConfiguration.Parameter#API_REQUEST_TEMPLATE_STREAMING}
+     *
+     * @param requestTemplateStreaming true to stream the request template
+     */
+    public void setRequestTemplateStreaming(boolean requestTemplateStreaming) {
+        this.requestTemplateStreaming = requestTemplateStreaming;
+    }
+
     public void setRequestBody(Object body) {
         setRequestBody(body, OBJECT_MAPPER);
     }
@@ -162,9 +188,13 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
             tm.setIgnoredPropertiesProcessorClasses(ignoredPropertiesProcessorClasses);
             tm.setTemplatePath(rqPath);
             tm.setPropertiesStorage(properties);
-            setBodyContent(tm.getMessageText());
+            if (requestTemplateStreaming) {
+                setStreamingBody(new StreamingBody(tm::writeMessageText, rqPath));
+            } else {
+                setBodyContent(tm.getMessageText());
+            }
         } else {
-            ContextResolverChain.resolveRequestBody(getAnchorElement()).ifPresent(requestBodyContainer -> requestBodyContainer.getBody()
+            getDefinition().getRequestBody().ifPresent(requestBodyContainer -> requestBodyContainer.getBody()
                     .ifPresent(body -> {
                         if (requestBodyContainer.isJson()) {
                             setBodyContent(body.toString());
@@ -191,6 +221,16 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
         return rs;
     }
 
+    @Override
+    CompletableFuture<Response> callAPIAsync(LoggingOutputStream outputStream, Executor executor) {
+        initBodyContent();
+        return super.callAPIAsync(outputStream, executor)
+                .thenApply(rs -> {
+                    actualRsBody = rs.asString();
+                    return rs;
+                });
+    }
+
     /**
      * Allows to create an api request with repetition, timeout and condition of successful response, as well as setting
      * a logging strategy
@@ -209,7 +249,7 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
      * @return restassured Response object
      */
     public Response callAPIExpectSuccess() {
-        HttpResponseStatus status = ContextResolverChain.resolveSuccessfulHttpStatus(getAnchorElement())
+        HttpResponseStatus status = getDefinition().getSuccessfulHttpStatus()
                 .orElseThrow(() -> new RuntimeException("To use this method please declare @SuccessfulHttpStatus for your AbstractApiMethod class"));
         expectResponseStatus(status);
         return callAPI();
@@ -225,24 +265,28 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
                 .ifPresent(this::setProperties);
     }
 
-    private static Optional<Properties> loadProperties(String propertiesPath) {
-        Properties properties = null;
-
-        if (propertiesPath != null) {
+    static Optional<Properties> loadProperties(String propertiesPath) {
+        if (propertiesPath == null) {
+            return Optional.empty();
+        }
+        Map<Object, Object> snapshot = PROPERTIES_SNAPSHOTS.get(propertiesPath);
+        if (snapshot == null) {
             URL baseResource = ClassLoader.getSystemResource(propertiesPath);
-            if (baseResource != null) {
-                properties = new Properties();
-                try (InputStream propertiesStream = baseResource.openStream()) {
-                    properties.load(propertiesStream);
-                } catch (IOException e) {
-                    throw new UncheckedIOException("Properties can't be loaded by path: " + propertiesPath, e);
-                }
-                LOGGER.info("Base properties loaded: {}", propertiesPath);
-            } else {
+            if (baseResource == null) {
                 throw new UncheckedIOException(new FileNotFoundException("Properties can't be found by path: " + propertiesPath));
             }
+            Properties properties = new Properties();
+            try (InputStream propertiesStream = baseResource.openStream()) {
+                properties.load(propertiesStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Properties can't be loaded by path: " + propertiesPath, e);
+            }
+            LOGGER.info("Base properties loaded: {}", propertiesPath);
+            snapshot = Collections.unmodifiableMap(new HashMap<>(properties));
+            Map<Object, Object> existing = PROPERTIES_SNAPSHOTS.putIfAbsent(propertiesPath, snapshot);
+            snapshot = existing != null ? existing : snapshot;
         }
-        return Optional.ofNullable(properties);
+        return Optional.of(new LayeredProperties(snapshot));
     }
 
     public void ignorePropertiesProcessor(Class<? extends PropertiesProcessor> ignoredPropertiesProcessorClass) {
@@ -261,7 +305,7 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
         if (properties != null) {
             this.properties = PropertiesProcessorMain.processProperties(properties, ignoredPropertiesProcessorClasses);
 
-            ContextResolverChain.resolveProperties(getAnchorElement())
+            getDefinition().getProperties()
                     .ifPresent(this::addProperties);
         }
     }
@@ -303,7 +347,8 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
      * Validates JSON response using custom options
      *
      *  @param comparatorContext
-     *            - stores additional validation items provided from outside
+     *            - stores additional validation items provided from outside. Parallel validation of large arrays is
+     *            enabled by {@link JsonComparatorContext#withParallelism(int)}
      * @param validationFlags
      *            - used for JSON arrays validation when we need to check presence of some array items in result array.
      *            Use JsonCompareKeywords.ARRAY_CONTAINS.getKey() construction for that
@@ -319,7 +364,8 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
      *            - determines how to compare 2 JSONs. See type description for more details. Mode is not applied for
      *            arrays comparison
      * @param comparatorContext
-     *            - stores additional validation items provided from outside
+     *            - stores additional validation items provided from outside. Parallel validation of large arrays is
+     *            enabled by {@link JsonComparatorContext#withParallelism(int)}
      * @param validationFlags
      *            - used for JSON arrays validation when we need to check presence of some array items in result array.
      *            Use JsonCompareKeywords.ARRAY_CONTAINS.getKey() construction for that
@@ -335,13 +381,45 @@ public abstract class AbstractApiMethodV2 extends AbstractApiMethod {
         tm.setTemplatePath(rsPath);
         tm.setPropertiesStorage(properties);
         String expectedRs = tm.getMessageText();
+        Optional<JsonNode> actualJson = parseResponseJson();
         try {
+            if (actualJson.isPresent()) {
+                JsonValidator.validateJson(expectedRs, actualJson.get(), mode, comparatorContext, validationFlags);
+                return;
+            }
             JSONAssert.assertEquals(expectedRs, actualRsBody, new JsonKeywordsComparator(actualRsBody, mode, comparatorContext, validationFlags));
         } catch (JSONException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Returns the response body parsed to the json tree. Response body is parsed once for all the calls of this method
+     * and JSON response validations until the next API call
+     *
+     * @return see {@link JsonNode}
+     */
+    public JsonNode getResponseJson() {
+        Objects.requireNonNull(actualRsBody, RESPONSE_BODY_IS_NULL_EXCEPTION);
+        return parseResponseJson()
+                .orElseThrow(() -> new RuntimeException("Response body is not a json object or array: " + actualRsBody));
+    }
+
+    private Optional<JsonNode> parseResponseJson() {
+        String body = actualRsBody;
+        if (body != parsedRsBody) {
+            JsonNode json;
+            try {
+                json = OBJECT_MAPPER.readTree(body);
+            } catch (JsonProcessingException e) {
+                json = null;
+            }
+            responseJson = json != null && json.isContainerNode() ? json : null;
+            parsedRsBody = body;
+        }
+        return Optional.ofNullable(responseJson);
+    }
+
     /**
      * Validates Xml response using custom options
      * 
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api;
+
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executes a batch of API methods with limited parallelism.<br>
+ * Each API method is called through {@link AbstractApiMethod#callAPI()}, so interceptors and logging are applied as usual.
+ * Results are passed to the consumer in the submission order as soon as they are available. Calls that are executed
+ * and results that wait for the preceding ones are limited by the parallelism together, so the batch is never kept in
+ * memory as a whole
+ *
+ * @param <M> type of the API methods
+ */
+public class ApiBatchExecutor<M extends AbstractApiMethod> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private int parallelism;
+    private int perHostParallelism;
+    private Consumer<M> validation;
+
+    private ApiBatchExecutor() {
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    public static <M extends AbstractApiMethod> ApiBatchExecutor<M> builder() {
+        return new ApiBatchExecutor<>();
+    }
+
+    /**
+     * Sets the maximum number of API calls executed at the same time
+     *
+     * @param parallelism number of parallel calls
+     * @return ApiBatchExecutor object
+     */
+    public ApiBatchExecutor<M> parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive, but was: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of API calls to the same host executed at the same time. Not limited by default
+     *
+     * @param perHostParallelism number of parallel calls per host
+     * @return ApiBatchExecutor object
+     */
+    public ApiBatchExecutor<M> perHostParallelism(int perHostParallelism) {
+        if (perHostParallelism < 1) {
+            throw new IllegalArgumentException("Per host parallelism should be positive, but was: " + perHostParallelism);
+        }
+        this.perHostParallelism = perHostParallelism;
+        return this;
+    }
+
+    /**
+     * Sets validation that is executed right after the api calling, for example
+     * {@code method -> method.validateResponse()}. Thrown errors are stored as the call failure
+     *
+     * @param validation lambda expression
+     * @return ApiBatchExecutor object
+     */
+    public ApiBatchExecutor<M> validateWith(Consumer<M> validation) {
+        this.validation = validation;
+        return this;
+    }
+
+    /**
+     * Executes all API methods and collects results in the submission order
+     *
+     * @param methods API methods to call
+     * @return results of the API calls
+     */
+    public List<ApiCallResult<M>> execute(Iterable<M> methods) {
+        List<ApiCallResult<M>> results = new ArrayList<>();
+        execute(methods, results::add);
+        return results;
+    }
+
+    /**
+     * Executes all API methods and passes results to the consumer in the submission order.
+     * Consumer is called on the current thread, the method returns when all API calls are finished
+     *
+     * @param methods        API methods to call
+     * @param resultConsumer consumer of the API call results
+     */
+    public void execute(Iterable<M> methods, Consumer<ApiCallResult<M>> resultConsumer) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "carina-api-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, Semaphore> hostPermits = new HashMap<>();
+        BlockingQueue<ApiCallResult<M>> completed = new LinkedBlockingQueue<>();
+        Map<Integer, ApiCallResult<M>> pending = new HashMap<>();
+
+        Iterator<M> iterator = methods.iterator();
+        M next = null;
+        int submitted = 0;
+        int nextToEmit = 0;
+        try {
+            while (next != null || iterator.hasNext() || nextToEmit < submitted) {
+                if (next == null && iterator.hasNext()) {
+                    next = iterator.next();
+                }
+                // results waiting for the preceding ones are counted too, so at most 'parallelism' results are kept
+                if (next != null && submitted - nextToEmit < parallelism) {
+                    // per host permit is taken before the submission to not block threads of the pool
+                    Semaphore permit = perHostParallelism > 0
+                            ? hostPermits.computeIfAbsent(recognizeHost(next), host -> new Semaphore(perHostParallelism))
+                            : null;
+                    if (permit == null || permit.tryAcquire()) {
+                        M method = next;
+                        int index = submitted++;
+                        next = null;
+                        executor.execute(() -> completed.add(call(index, method, permit)));
+                        continue;
+                    }
+                }
+                // the permit is released before the result is completed, so the next method can be submitted after it
+                ApiCallResult<M> result = completed.take();
+                pending.put(result.getIndex(), result);
+                while (pending.containsKey(nextToEmit)) {
+                    resultConsumer.accept(pending.remove(nextToEmit++));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch execution was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ApiCallResult<M> call(int index, M method, Semaphore permit) {
+        int statusCode = -1;
+        Throwable failure = null;
+        long start = System.nanoTime();
+        try {
+            Response response = method.callAPI();
+            statusCode = response.getStatusCode();
+            if (validation != null) {
+                validation.accept(method);
+            }
+        } catch (Throwable e) {
+            LOGGER.debug("API call #{} failed: {}", index, e.getMessage());
+            failure = e;
+        } finally {
+            if (permit != null) {
+                permit.release();
+            }
+        }
+        return new ApiCallResult<>(index, method, statusCode, Duration.ofNanos(System.nanoTime() - start), failure);
+    }
+
+    private static String recognizeHost(AbstractApiMethod method) {
+        try {
+            String host = URI.create(method.getMethodPath()).getHost();
+            return host == null ? "" : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Result of a single API call made by {@link ApiBatchExecutor}.
+ * The restassured Response object is not kept here to not hold all responses of the batch in memory
+ *
+ * @param <M> type of the API method
+ */
+public class ApiCallResult<M extends AbstractApiMethod> {
+
+    private final int index;
+    private final M method;
+    private final int statusCode;
+    private final Duration duration;
+    private final Throwable failure;
+
+    ApiCallResult(int index, M method, int statusCode, Duration duration, Throwable failure) {
+        this.index = index;
+        this.method = method;
+        this.statusCode = statusCode;
+        this.duration = duration;
+        this.failure = failure;
+    }
+
+    /**
+     * @return position of the API method in the submitted collection
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public M getMethod() {
+        return method;
+    }
+
+    /**
+     * @return http status code of the response or -1 if the response was not received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return time spent on the API call including validation
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Optional<Throwable> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s: status=%d, duration=%dms%s", index, method.getClass().getSimpleName(), statusCode,
+                duration.toMillis(), failure == null ? "" : ", failure=" + failure.getMessage());
+    }
+}
@@ -0,0 +1,484 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zebrunner.carina.api.apitools.builder.LayeredProperties;
+import com.zebrunner.carina.api.apitools.builder.MessageBuilder;
+import com.zebrunner.carina.api.apitools.builder.PropertiesProcessorMain;
+import com.zebrunner.carina.api.resolver.ContextResolverChain;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Renders one request template for each row of a dataset, for example to feed {@link ApiBatchExecutor} in load runs.<br>
+ * Rows are read incrementally from CSV (the first record is the header) or JSON Lines file and become template properties
+ * on top of the base properties, so generation and decryption keywords work as in usual templates. Bodies are rendered
+ * lazily on the consuming thread or, if {@link #parallelism(int)} is set, in advance by a thread pool into a bounded
+ * queue. Bodies are returned in the order of the rows.<br>
+ * Iteration closes the file when all rows are consumed, iteration that is stopped earlier should be closed through
+ * {@link #stream()} or {@link #map(Function)}
+ */
+public class PayloadStream implements Iterable<String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Future<String> END_OF_ROWS = CompletableFuture.completedFuture(null);
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    private final String templatePath;
+    private final Path rowsPath;
+    private final Properties baseProperties;
+    private int parallelism;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    private PayloadStream(String templatePath, Path rowsPath, Properties baseProperties) {
+        this.templatePath = templatePath;
+        this.rowsPath = rowsPath;
+        this.baseProperties = baseProperties;
+    }
+
+    /**
+     * @param templatePath path to the request template in the classpath
+     * @param rowsPath     path to .csv or .jsonl file
+     * @return PayloadStream object
+     */
+    public static PayloadStream of(String templatePath, Path rowsPath) {
+        return new PayloadStream(templatePath, rowsPath, new LayeredProperties());
+    }
+
+    /**
+     * Takes request template and base properties from {@code @RequestTemplatePath}, {@code @PropertiesPath} and
+     * other annotations of the API method class, the same way as {@link AbstractApiMethodV2} does
+     *
+     * @param methodClass API method class
+     * @param rowsPath    path to .csv or .jsonl file
+     * @return PayloadStream object
+     */
+    public static PayloadStream of(Class<? extends AbstractApiMethodV2> methodClass, Path rowsPath) {
+        String templatePath = ContextResolverChain.resolveRequestTemplatePath(methodClass)
+                .orElseThrow(() -> new IllegalArgumentException("Request template path is not specified for " + methodClass.getName()));
+        Properties properties = AbstractApiMethodV2.loadProperties(ContextResolverChain.resolvePropertiesPath(methodClass).orElse(null))
+                .orElseGet(LayeredProperties::new);
+        ContextResolverChain.resolveProperties(methodClass)
+                .ifPresent(properties::putAll);
+        return new PayloadStream(templatePath, rowsPath, properties);
+    }
+
+    /**
+     * Adds properties that are common for all rows, values of the rows override them
+     *
+     * @param properties properties
+     * @return PayloadStream object
+     */
+    public PayloadStream properties(Map<?, ?> properties) {
+        baseProperties.putAll(properties);
+        return this;
+    }
+
+    /**
+     * Sets the number of threads that render bodies in advance. Bodies are rendered on the consuming thread by default
+     *
+     * @param parallelism number of rendering threads
+     * @return PayloadStream object
+     */
+    public PayloadStream parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive, but was: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bodies rendered in advance, {@value #DEFAULT_QUEUE_CAPACITY} by default
+     *
+     * @param queueCapacity capacity of the queue of rendered bodies
+     * @return PayloadStream object
+     */
+    public PayloadStream queueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity should be positive, but was: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return parallelism > 0 ? new PrerenderingIterator() : new RenderingIterator();
+    }
+
+    /**
+     * @return ordered stream of bodies that releases the file and rendering threads when closed
+     */
+    public Stream<String> stream() {
+        Iterator<String> iterator = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> close(iterator));
+    }
+
+    /**
+     * Lazily creates API methods from the rendered bodies. The stream should be closed to release the file and
+     * rendering threads if it is not consumed to the end, for example
+     * {@code try (Stream<PostUserMethod> methods = payloads.map(PostUserMethod::fromBody)) { executor.execute(methods::iterator); }}
+     *
+     * @param factory creates API method from the body
+     * @param <M>     type of the API methods
+     * @return ordered stream of API methods, its iterator can be passed to {@link ApiBatchExecutor#execute(Iterable)}
+     */
+    public <M extends AbstractApiMethod> Stream<M> map(Function<String, M> factory) {
+        return stream().map(factory);
+    }
+
+    /**
+     * @return immutable copy of the base properties, so rendering threads do not lock the base properties
+     */
+    private Map<Object, Object> snapshotBaseProperties() {
+        Map<Object, Object> snapshot = new HashMap<>();
+        baseProperties.forEach(snapshot::put);
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private String render(Map<Object, Object> base, Map<String, Object> row) {
+        LayeredProperties properties = new LayeredProperties(base);
+        properties.putAll(row);
+        return MessageBuilder.buildStringMessage(templatePath, PropertiesProcessorMain.processProperties(properties, null));
+    }
+
+    private RowReader openRows() {
+        try {
+            BufferedReader reader = Files.newBufferedReader(rowsPath, StandardCharsets.UTF_8);
+            String fileName = rowsPath.getFileName().toString().toLowerCase();
+            if (fileName.endsWith(".csv")) {
+                return new CsvRowReader(reader);
+            }
+            if (fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson")) {
+                return new JsonLinesRowReader(reader);
+            }
+            reader.close();
+            throw new IllegalArgumentException("Unsupported dataset format, .csv or .jsonl file is expected: " + rowsPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Dataset can't be opened: " + rowsPath, e);
+        }
+    }
+
+    private static void close(Iterator<String> iterator) {
+        try {
+            ((Closeable) iterator).close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class RenderingIterator implements Iterator<String>, Closeable {
+
+        private final Map<Object, Object> base = snapshotBaseProperties();
+        private RowReader rows;
+        private Map<String, Object> nextRow;
+        private boolean finished;
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && !finished) {
+                if (rows == null) {
+                    rows = openRows();
+                }
+                nextRow = rows.next();
+                if (nextRow == null) {
+                    close();
+                }
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<String, Object> row = nextRow;
+            nextRow = null;
+            return render(base, row);
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+            if (rows != null) {
+                rows.close();
+            }
+        }
+    }
+
+    private final class PrerenderingIterator implements Iterator<String>, Closeable {
+
+        private final Map<Object, Object> base = snapshotBaseProperties();
+        private final BlockingQueue<Future<String>> rendered = new ArrayBlockingQueue<>(queueCapacity);
+        private final ExecutorService renderers;
+        private final Thread reader;
+        private Future<String> nextBody;
+        private boolean finished;
+
+        private PrerenderingIterator() {
+            AtomicInteger threadNumber = new AtomicInteger();
+            renderers = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "carina-api-payload-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            reader = new Thread(this::readRows, "carina-api-payload-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readRows() {
+            try {
+                try (RowReader rows = openRows()) {
+                    Map<String, Object> row;
+                    while ((row = rows.next()) != null) {
+                        Map<String, Object> currentRow = row;
+                        rendered.put(renderers.submit(() -> render(base, currentRow)));
+                    }
+                } catch (RuntimeException e) {
+                    rendered.put(CompletableFuture.failedFuture(e));
+                }
+                rendered.put(END_OF_ROWS);
+            } catch (InterruptedException e) {
+                // iteration is closed
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextBody == null && !finished) {
+                try {
+                    nextBody = rendered.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new RuntimeException("Waiting for the rendered payload was interrupted", e);
+                }
+                if (nextBody == END_OF_ROWS) {
+                    nextBody = null;
+                    close();
+                }
+            }
+            return nextBody != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Future<String> body = nextBody;
+            nextBody = null;
+            try {
+                return body.get();
+            } catch (ExecutionException e) {
+                close();
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException("Payload can't be rendered", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException("Waiting for the rendered payload was interrupted", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+            reader.interrupt();
+            renderers.shutdownNow();
+        }
+    }
+
+    private interface RowReader extends Closeable {
+
+        /**
+         * @return next row or null if there are no more rows
+         */
+        Map<String, Object> next();
+
+        @Override
+        void close();
+    }
+
+    private abstract static class AbstractRowReader implements RowReader {
+
+        protected final BufferedReader reader;
+
+        AbstractRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        protected String readLine() {
+            try {
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Dataset can't be read", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class JsonLinesRowReader extends AbstractRowReader {
+
+        JsonLinesRowReader(BufferedReader reader) {
+            super(reader);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map<String, Object> next() {
+            String line;
+            do {
+                line = readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                Map<String, Object> row = OBJECT_MAPPER.readValue(line, LinkedHashMap.class);
+                row.values().removeIf(value -> value == null);
+                return row;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Dataset line is not a json object: " + line, e);
+            }
+        }
+    }
+
+    /**
+     * Reads RFC 4180 records: fields are separated by commas, quoted fields can contain commas, line breaks and
+     * escaped ("") quotes
+     */
+    private static final class CsvRowReader extends AbstractRowReader {
+
+        private List<String> header;
+
+        CsvRowReader(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                // byte order mark
+                header.set(0, header.get(0).replace("\uFEFF", ""));
+            }
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(header.size(), record.size()); i++) {
+                row.put(header.get(i), record.get(i));
+            }
+            return row;
+        }
+
+        private List<String> readRecord() {
+            String line;
+            do {
+                line = readLine();
+            } while (line != null && line.isEmpty());
+            if (line == null) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    line = readLine();
+                    if (line == null) {
+                        throw new IllegalStateException("Dataset ends inside of the quoted field: " + field);
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+        }
+    }
+}
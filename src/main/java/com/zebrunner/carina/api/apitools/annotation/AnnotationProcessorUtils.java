@@ -1,12 +1,11 @@
 package com.zebrunner.carina.api.apitools.annotation;
 
-import com.zebrunner.carina.api.apitools.annotation.processor.RelatedTo;
+import com.zebrunner.carina.api.binding.RuntimeMethod;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -16,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -23,43 +23,38 @@ import java.util.stream.Stream;
 
 public class AnnotationProcessorUtils {
 
+    private static final Map<List<Object>, Optional<? extends Annotation>> ANNOTATIONS_CACHE = new ConcurrentHashMap<>();
+
     private AnnotationProcessorUtils() {
         //hide
     }
 
-    public static <A extends Annotation> Optional<A> getAnnotation(AnnotatedElement element, Class<A> annClass) {
-        return findAnnotatedElement(element, annClass)
-                .map(o -> doOnType(o, annotation -> proxyAnnotation(annotation, annClass), ae -> ae.getDeclaredAnnotation(annClass)));
-    }
-
+    /**
+     * Returns the annotation of the element or the annotation synthesized from the meta-annotation.
+     * Results for classes, methods and parameters are cached, so meta-annotations are synthesized only once
+     */
     @SuppressWarnings("unchecked")
-    private static <A extends Annotation> A proxyAnnotation(Annotation foundAnnotation, Class<A> annClass) {
-        List<Method> relatedMethods = Arrays.stream(foundAnnotation.annotationType().getDeclaredMethods())
-                .filter(AnnotationProcessorUtils::isAnnotationMethod)
-                .filter(method -> method.isAnnotationPresent(RelatedTo.class))
-                .filter(method -> method.getDeclaredAnnotation(RelatedTo.class).annotationClass().equals(annClass))
-                .collect(Collectors.toList());
-
-        return (A) Proxy.newProxyInstance(annClass.getClassLoader(), new Class[] { annClass }, (proxy, method, args) ->
-                relatedMethods.stream()
-                        .filter(m -> m.getDeclaredAnnotation(RelatedTo.class).field().equals(method.getName()))
-                        .findFirst()
-                        .map(m -> invokeMethod(m, foundAnnotation, args))
-                        .orElseGet(() -> invokeMethod(method, foundAnnotation.annotationType()
-                                .getDeclaredAnnotation(annClass), args)));
+    public static <A extends Annotation> Optional<A> getAnnotation(AnnotatedElement element, Class<A> annClass) {
+        AnnotatedElement cacheableElement = element instanceof RuntimeMethod ? ((RuntimeMethod) element).getMethod() : element;
+        if (!isCacheable(cacheableElement)) {
+            return findAnnotation(element, annClass);
+        }
+        List<Object> key = List.of(cacheableElement, annClass);
+        Optional<A> annotation = (Optional<A>) ANNOTATIONS_CACHE.get(key);
+        if (annotation == null) {
+            annotation = findAnnotation(element, annClass);
+            ANNOTATIONS_CACHE.putIfAbsent(key, annotation);
+        }
+        return annotation;
     }
 
-    @SuppressWarnings("unchecked")
-    private static <R> R invokeMethod(Method method, Object instance, Object[] args) {
-        try {
-            return (R) method.invoke(instance, args);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+    private static <A extends Annotation> Optional<A> findAnnotation(AnnotatedElement element, Class<A> annClass) {
+        return findAnnotatedElement(element, annClass)
+                .map(o -> doOnType(o, annotation -> SynthesizedAnnotation.synthesize(annotation, annClass), ae -> ae.getDeclaredAnnotation(annClass)));
     }
 
-    private static boolean isAnnotationMethod(Method method) {
-        return method.getParameterCount() == 0 && method.getReturnType() != void.class;
+    private static boolean isCacheable(AnnotatedElement element) {
+        return element instanceof Class || element instanceof Method || element instanceof Parameter;
     }
 
     public static Optional<Object> findAnnotatedElement(AnnotatedElement element, Class<? extends Annotation> annClass) {
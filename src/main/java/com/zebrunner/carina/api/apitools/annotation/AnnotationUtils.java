@@ -4,10 +4,9 @@ import com.zebrunner.carina.api.apitools.annotation.processor.AnnotationProcesso
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -19,30 +18,43 @@ public class AnnotationUtils {
 
     public static <A extends Annotation> List<AnnotationContext<A, AnnotatedElement>> findAllAnnotationContextsByChain(AnnotatedElement element,
             Class<A> annClass) {
-        return resolveAnnotationProcessors(element).stream()
-                .map(annotationProcessor -> annotationProcessor.findAllAnnotationContexts(convertToProcessorElement(element, annotationProcessor),
-                        annClass))
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+        List<AnnotationProcessor<AnnotatedElement>> annotationProcessors = resolveAnnotationProcessors(element);
+        if (annotationProcessors.isEmpty()) {
+            return new ArrayList<>();
+        }
+        AnnotationProcessor<AnnotatedElement> annotationProcessor = annotationProcessors.get(0);
+        List<AnnotationContext<A, AnnotatedElement>> contexts = new ArrayList<>(annotationProcessor.findAllAnnotationContexts(element, annClass));
+        if (annotationProcessors.size() > 1) {
+            contexts.addAll(findAllAnnotationContextsByChain(annotationProcessor.covertToNextLevel(element), annClass));
+        }
+        return contexts;
     }
 
     public static <A extends Annotation> Optional<AnnotationContext<A, AnnotatedElement>> findFirstAnnotationContextByChain(AnnotatedElement element,
             Class<A> annClass) {
-        return resolveAnnotationProcessors(element).stream()
-                .map(annotationProcessor -> annotationProcessor.findFirstAnnotationContext(convertToProcessorElement(element, annotationProcessor),
-                        annClass))
-                .filter(Optional::isPresent)
-                .findFirst()
-                .orElse(Optional.empty());
+        List<AnnotationProcessor<AnnotatedElement>> annotationProcessors = resolveAnnotationProcessors(element);
+        if (annotationProcessors.isEmpty()) {
+            return Optional.empty();
+        }
+        AnnotationProcessor<AnnotatedElement> annotationProcessor = annotationProcessors.get(0);
+        Optional<AnnotationContext<A, AnnotatedElement>> context = annotationProcessor.findFirstAnnotationContext(element, annClass);
+        if (context.isEmpty() && annotationProcessors.size() > 1) {
+            context = findFirstAnnotationContextByChain(annotationProcessor.covertToNextLevel(element), annClass);
+        }
+        return context;
     }
 
     public static Optional<AnnotatedElement> findFirstConditionalElementByChain(AnnotatedElement element, Predicate<AnnotatedElement> condition) {
-        return resolveAnnotationProcessors(element).stream()
-                .map(annotationProcessor -> annotationProcessor.findFirstConditionalElement(convertToProcessorElement(element, annotationProcessor),
-                        condition))
-                .filter(Optional::isPresent)
-                .findFirst()
-                .orElse(Optional.empty());
+        List<AnnotationProcessor<AnnotatedElement>> annotationProcessors = resolveAnnotationProcessors(element);
+        if (annotationProcessors.isEmpty()) {
+            return Optional.empty();
+        }
+        AnnotationProcessor<AnnotatedElement> annotationProcessor = annotationProcessors.get(0);
+        Optional<AnnotatedElement> result = annotationProcessor.findFirstConditionalElement(element, condition);
+        if (result.isEmpty() && annotationProcessors.size() > 1) {
+            result = findFirstConditionalElementByChain(annotationProcessor.covertToNextLevel(element), condition);
+        }
+        return result;
     }
 
     public static boolean isAnnotatedPresent(AnnotatedElement element, Class<? extends Annotation> annClass) {
@@ -62,25 +74,4 @@ public class AnnotationUtils {
                 .map(annotationProcessor -> (AnnotationProcessor<AnnotatedElement>) annotationProcessor)
                 .collect(Collectors.toList());
     }
-
-    @SuppressWarnings("unchecked")
-    private static AnnotatedElement convertToProcessorElement(AnnotatedElement element, AnnotationProcessor<?> annotationProcessor) {
-        AnnotatedElement toElement = SupportedType.findSupportedAnnotatedElementBy((Class<AnnotationProcessor<?>>) annotationProcessor.getClass());
-        return convertToElement(element, toElement);
-    }
-
-    @SuppressWarnings("unchecked")
-    private static AnnotatedElement convertToElement(AnnotatedElement element, AnnotatedElement toElement) {
-        List<SupportedType> typesChain = SupportedType.findSupportedTypesFrom(element, toElement);
-
-        AtomicReference<AnnotatedElement> nextElement = new AtomicReference<>(element);
-
-        typesChain.stream()
-                .map(SupportedType::getAnnotationProcessor)
-                .forEach(annotationProcessor -> nextElement.set(((AnnotationProcessor<AnnotatedElement>) annotationProcessor)
-                        .covertToNextLevel(nextElement.get()))
-                );
-
-        return nextElement.get();
-    }
 }
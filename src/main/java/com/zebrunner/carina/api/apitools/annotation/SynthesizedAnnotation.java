@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.annotation;
+
+import com.zebrunner.carina.api.apitools.annotation.processor.RelatedTo;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation of the annClass type that is composed from the meta-annotation and the fields of the annotation that
+ * refers to it by {@link RelatedTo}.<br>
+ * All attribute values are resolved once on creation, so attribute access does not call the source annotations.
+ * Equality, hash code and string representation follow the {@link Annotation} contract
+ */
+final class SynthesizedAnnotation implements InvocationHandler {
+
+    private final Class<? extends Annotation> annotationType;
+    private final Map<String, Object> values;
+
+    private SynthesizedAnnotation(Class<? extends Annotation> annotationType, Map<String, Object> values) {
+        this.annotationType = annotationType;
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A extends Annotation> A synthesize(Annotation foundAnnotation, Class<A> annClass) {
+        A metaAnnotation = foundAnnotation.annotationType().getDeclaredAnnotation(annClass);
+        Map<String, Method> relatedMethods = Arrays.stream(foundAnnotation.annotationType().getDeclaredMethods())
+                .filter(SynthesizedAnnotation::isAnnotationMethod)
+                .filter(method -> method.isAnnotationPresent(RelatedTo.class))
+                .filter(method -> method.getDeclaredAnnotation(RelatedTo.class).annotationClass().equals(annClass))
+                .collect(Collectors.toMap(method -> method.getDeclaredAnnotation(RelatedTo.class).field(), method -> method, (m1, m2) -> m1));
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Method method : annClass.getDeclaredMethods()) {
+            if (!isAnnotationMethod(method)) {
+                continue;
+            }
+            Method relatedMethod = relatedMethods.get(method.getName());
+            values.put(method.getName(), relatedMethod != null
+                    ? invokeMethod(relatedMethod, foundAnnotation)
+                    : invokeMethod(method, metaAnnotation));
+        }
+        return (A) Proxy.newProxyInstance(annClass.getClassLoader(), new Class[] { annClass }, new SynthesizedAnnotation(annClass, values));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (method.getParameterCount() == 1 && "equals".equals(name)) {
+            return isEqualTo(args[0]);
+        }
+        if (method.getParameterCount() != 0) {
+            throw new IllegalStateException("Unexpected method of the annotation: " + method);
+        }
+        switch (name) {
+        case "annotationType":
+            return annotationType;
+        case "hashCode":
+            return computeHashCode();
+        case "toString":
+            return computeToString();
+        default:
+            Object value = values.get(name);
+            if (value == null) {
+                throw new IllegalStateException("Unexpected method of the annotation: " + method);
+            }
+            return cloneArray(value);
+        }
+    }
+
+    private boolean isEqualTo(Object other) {
+        if (!annotationType.isInstance(other)) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object otherValue;
+            try {
+                otherValue = annotationType.getMethod(entry.getKey()).invoke(other);
+            } catch (ReflectiveOperationException e) {
+                return false;
+            }
+            if (!Arrays.deepEquals(new Object[] { entry.getValue() }, new Object[] { otherValue })) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int computeHashCode() {
+        int hashCode = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            // deepHashCode of the single element array is 31 + hash code of the element (array content for arrays)
+            hashCode += (127 * entry.getKey().hashCode()) ^ (Arrays.deepHashCode(new Object[] { entry.getValue() }) - 31);
+        }
+        return hashCode;
+    }
+
+    private String computeToString() {
+        return values.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + valueToString(entry.getValue()))
+                .collect(Collectors.joining(", ", "@" + annotationType.getName() + "(", ")"));
+    }
+
+    private static String valueToString(Object value) {
+        String wrapped = Arrays.deepToString(new Object[] { value });
+        return wrapped.substring(1, wrapped.length() - 1);
+    }
+
+    private static Object cloneArray(Object value) {
+        if (!value.getClass().isArray() || Array.getLength(value) == 0) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static boolean isAnnotationMethod(Method method) {
+        return method.getParameterCount() == 0 && method.getReturnType() != void.class;
+    }
+
+    private static Object invokeMethod(Method method, Object instance) {
+        try {
+            return method.invoke(instance);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -18,20 +18,51 @@ package com.zebrunner.carina.api.apitools.builder;
 import com.zebrunner.carina.utils.encryptor.EncryptorUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Decrypts encrypted property values. Decryption is deterministic, so decrypted values are cached:
+ * the cache is shared by all processors and is cleared when it reaches {@value #MAX_CACHE_SIZE} values
+ */
 public class CryptoProcessor implements PropertiesProcessor {
 
+    private static final int MAX_CACHE_SIZE = 10_000;
+    private static final Map<String, String> DECRYPTED_VALUES = new ConcurrentHashMap<>();
+
     @Override
     public Properties process(Properties in) {
         Properties out = new Properties();
-        for (Entry<Object, Object> entry : in.entrySet()) {
-            String tmp = entry.getValue().toString();
-            String decrypted = EncryptorUtils.decrypt(tmp);
+        in.forEach((key, value) -> {
+            String tmp = value.toString();
+            String decrypted = decrypt(tmp);
             if (!StringUtils.equals(tmp, decrypted))
-                out.put(entry.getKey(), decrypted);
-        }
+                out.put(key, decrypted);
+        });
         return out;
     }
+
+    private static String decrypt(String value) {
+        String decrypted = DECRYPTED_VALUES.get(value);
+        if (decrypted != null) {
+            return decrypted;
+        }
+        decrypted = EncryptorUtils.decrypt(value);
+        // only encrypted values are cached, so plain values do not displace them
+        if (!StringUtils.equals(value, decrypted)) {
+            if (DECRYPTED_VALUES.size() >= MAX_CACHE_SIZE) {
+                DECRYPTED_VALUES.clear();
+            }
+            DECRYPTED_VALUES.put(value, decrypted);
+        }
+        return decrypted;
+    }
+
+    /**
+     * Clears cached decrypted values, for example after the change of the crypto key
+     */
+    public static void clearCache() {
+        DECRYPTED_VALUES.clear();
+    }
 }
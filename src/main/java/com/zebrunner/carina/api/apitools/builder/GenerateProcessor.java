@@ -15,63 +15,119 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.builder;
 
+import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Map.Entry;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.ServiceLoader;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.zebrunner.carina.api.apitools.util.GenerationUtil;
 
+/**
+ * Replaces {@code generate_word(<length>)}, {@code generate_number(<length>)}, {@code generate_date(<format>;<offset in days>)}
+ * and keywords of {@link ValueGenerator} implementations in property values by generated values.<br>
+ * Each value is scanned once by a single precompiled pattern. Equal placeholders within one value are replaced by the same
+ * generated value
+ */
 public class GenerateProcessor implements PropertiesProcessor {
 
+    private static final String WORD_GROUP = "word";
+    private static final String NUMBER_GROUP = "number";
+    private static final String DATE_FORMAT_GROUP = "dateFormat";
+    private static final String DATE_OFFSET_GROUP = "dateOffset";
+    private static final String KEYWORD_GROUP = "keyword";
+    private static final String ARGUMENT_GROUP = "argument";
+
     @Override
     public Properties process(Properties in) {
         Properties out = new Properties();
-        for (Entry<Object, Object> entry : in.entrySet()) {
-            Matcher wordMatcher = Pattern.compile(PropertiesKeywords.GENERATE_WORD_REGEX.getKey()).matcher(entry.getValue().toString());
-            Matcher numberMatcher = Pattern.compile(PropertiesKeywords.GENERATE_NUMBER_REGEX.getKey()).matcher(entry.getValue().toString());
-            Matcher dateMatcher = Pattern.compile(PropertiesKeywords.GENERATE_DATE_REGEX.getKey()).matcher(entry.getValue().toString());
-            String tmp = entry.getValue().toString();
-            boolean generated = false;
-
-            while (wordMatcher.find()) {
-                String toReplace = wordMatcher.group();
-                Matcher tmpMatcher = Pattern.compile("\\d+").matcher(toReplace);
-                tmpMatcher.find();
-                String length = tmpMatcher.group();
-                tmp = tmp.replace(toReplace, GenerationUtil.generateWord(Integer.parseInt(length)));
-                generated = true;
+        in.forEach((key, value) -> {
+            String generated = generate(value.toString());
+            if (generated != null) {
+                out.put(key, generated);
             }
+        });
+        return out;
+    }
 
-            while (numberMatcher.find()) {
-                String toReplace = numberMatcher.group();
-                Matcher tmpMatcher = Pattern.compile("\\d+").matcher(toReplace);
-                tmpMatcher.find();
-                String length = tmpMatcher.group();
-                tmp = tmp.replace(toReplace, GenerationUtil.generateNumber(Integer.parseInt(length)));
-                generated = true;
+    /**
+     * @return value with replaced placeholders or null if value has no placeholders
+     */
+    private static String generate(String value) {
+        if (value.indexOf('(') < 0) {
+            return null;
+        }
+        Matcher matcher = GeneratorsHolder.PATTERN.matcher(value);
+        if (!matcher.find()) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(value.length() + 16);
+        Map<String, String> generatedValues = null;
+        int position = 0;
+        do {
+            String placeholder = matcher.group();
+            String generated = generatedValues == null ? null : generatedValues.get(placeholder);
+            if (generated == null) {
+                generated = generate(matcher);
+                if (generatedValues == null) {
+                    generatedValues = new HashMap<>();
+                }
+                generatedValues.put(placeholder, generated);
             }
+            result.append(value, position, matcher.start())
+                    .append(generated);
+            position = matcher.end();
+        } while (matcher.find());
+        return result.append(value, position, value.length()).toString();
+    }
 
-            while (dateMatcher.find()) {
-                String toReplace = dateMatcher.group();
-                // getting offset
-                Matcher offsetMatcher = Pattern.compile("-{0,1}\\d+").matcher(toReplace);
-                offsetMatcher.find();
-                String offset = offsetMatcher.group();
-                // getting format
-                Matcher formatMatcher = Pattern.compile("(?<=generate_date\\().*?(?=;)").matcher(toReplace);
-                formatMatcher.find();
-                String format = formatMatcher.group();
-                // generating date
-                tmp = tmp.replace(toReplace,
-                        GenerationUtil.generateTime(format, Integer.parseInt(offset), Calendar.DAY_OF_YEAR));
-                generated = true;
+    private static String generate(Matcher matcher) {
+        if (matcher.group(WORD_GROUP) != null) {
+            return GenerationUtil.generateWord(Integer.parseInt(matcher.group(WORD_GROUP)));
+        }
+        if (matcher.group(NUMBER_GROUP) != null) {
+            return GenerationUtil.generateNumber(Integer.parseInt(matcher.group(NUMBER_GROUP)));
+        }
+        if (matcher.group(DATE_FORMAT_GROUP) != null) {
+            String offset = matcher.group(DATE_OFFSET_GROUP);
+            return GenerationUtil.generateTime(matcher.group(DATE_FORMAT_GROUP), offset.isEmpty() || "-".equals(offset) ? 0 : Integer.parseInt(offset),
+                    Calendar.DAY_OF_YEAR);
+        }
+        return GeneratorsHolder.GENERATORS.get(matcher.group(KEYWORD_GROUP))
+                .generate(matcher.group(ARGUMENT_GROUP));
+    }
+
+    private static final class GeneratorsHolder {
+
+        private static final Map<String, ValueGenerator> GENERATORS = new LinkedHashMap<>();
+        private static final Pattern PATTERN;
+
+        static {
+            ServiceLoader.load(ValueGenerator.class)
+                    .forEach(generator -> GENERATORS.putIfAbsent(generator.getKeyword(), generator));
+
+            List<String> alternatives = new ArrayList<>();
+            alternatives.add("generate_word\\((?<" + WORD_GROUP + ">\\d+)\\)");
+            alternatives.add("generate_number\\((?<" + NUMBER_GROUP + ">\\d+)\\)");
+            alternatives.add("generate_date\\((?<" + DATE_FORMAT_GROUP + ">.*?);(?<" + DATE_OFFSET_GROUP + ">-?[0-9]*)\\)");
+            if (!GENERATORS.isEmpty()) {
+                List<String> keywords = new ArrayList<>();
+                GENERATORS.keySet().stream()
+                        // longer keywords first, so a keyword that is a prefix of another one does not hide it
+                        .sorted((k1, k2) -> Integer.compare(k2.length(), k1.length()))
+                        .forEach(keyword -> keywords.add(Pattern.quote(keyword)));
+                alternatives.add("(?<" + KEYWORD_GROUP + ">" + String.join("|", keywords) + ")\\((?<" + ARGUMENT_GROUP + ">[^()]*)\\)");
             }
+            PATTERN = Pattern.compile(String.join("|", alternatives));
+        }
 
-            if (generated)
-                out.put(entry.getKey(), tmp);
+        private GeneratorsHolder() {
+            // hide
         }
-        return out;
     }
 }
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Properties on top of shared read-only layers, for example a properties file loaded once for all API methods.<br>
+ * Layers are not copied: lookups fall through the own entries to the layers, and modifications are stored as own entries
+ * or removed keys only. Operations that need the whole content as a single map (entry set views, equals etc.)
+ * copy visible entries of the layers into own entries once.<br>
+ * Layers are never modified through these properties. A layer may be a live view of a mutable source (for example,
+ * the environment configuration): its later changes are visible through lookups and iteration, except the keys that are
+ * overridden or removed here, and are not copied until the properties are flattened. Layers are checked by
+ * {@link Map#containsKey(Object)} for every visited entry, so it should not scan the layer
+ */
+public class LayeredProperties extends Properties {
+
+    private static final long serialVersionUID = 1L;
+
+    // newest layer first
+    private transient volatile List<Map<?, ?>> layers;
+    private transient Set<Object> removedKeys;
+
+    public LayeredProperties() {
+        this.layers = List.of();
+        this.removedKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * @param layer properties visible through these properties until they are overridden or removed
+     */
+    public LayeredProperties(Map<?, ?> layer) {
+        this.layers = List.of(layer);
+        this.removedKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates properties with the same layers and own copy of the modifications of the source
+     *
+     * @param source properties to copy
+     */
+    LayeredProperties(LayeredProperties source) {
+        synchronized (source) {
+            this.layers = source.layers;
+            this.removedKeys = ConcurrentHashMap.newKeySet();
+            this.removedKeys.addAll(source.removedKeys);
+            source.forEachOwn(super::put);
+        }
+    }
+
+    /**
+     * Adds the layer on top of the current content: its entries override present ones like {@link #putAll(Map)} does,
+     * but they are not copied
+     *
+     * @param layer properties that are read but never modified through these properties
+     */
+    public synchronized void addLayer(Map<?, ?> layer) {
+        modified();
+        layer.keySet().forEach(key -> {
+            super.remove(key);
+            removedKeys.remove(key);
+        });
+        List<Map<?, ?>> newLayers = new ArrayList<>(layers.size() + 1);
+        newLayers.add(layer);
+        newLayers.addAll(layers);
+        layers = List.copyOf(newLayers);
+    }
+
+    /**
+     * Called before each modification of these properties
+     */
+    void modified() {
+        // nothing by default
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = super.get(key);
+        if (value != null || layers.isEmpty() || removedKeys.contains(key)) {
+            return value;
+        }
+        for (Map<?, ?> layer : layers) {
+            value = layer.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getProperty(String key) {
+        Object value = get(key);
+        String property = value instanceof String ? (String) value : null;
+        return property == null && defaults != null ? defaults.getProperty(key) : property;
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        Object value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        modified();
+        Object previous = get(key);
+        super.put(key, value);
+        removedKeys.remove(key);
+        return previous;
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        t.forEach(this::put);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        modified();
+        Object previous = get(key);
+        super.remove(key);
+        if (layers.stream().anyMatch(layer -> layer.containsKey(key))) {
+            removedKeys.add(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        modified();
+        layers = List.of();
+        removedKeys.clear();
+        super.clear();
+    }
+
+    @Override
+    public synchronized void forEach(BiConsumer<? super Object, ? super Object> action) {
+        forEachLayered(action);
+        forEachOwn(action);
+    }
+
+    @Override
+    public synchronized int size() {
+        int[] size = { super.size() };
+        forEachLayered((key, value) -> size[0]++);
+        return size[0];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private void forEachOwn(BiConsumer<? super Object, ? super Object> action) {
+        super.forEach(action);
+    }
+
+    /**
+     * Visits entries of the layers that are not overridden, removed or hidden by newer layers
+     */
+    private void forEachLayered(BiConsumer<? super Object, ? super Object> action) {
+        List<Map<?, ?>> currentLayers = layers;
+        for (int i = 0; i < currentLayers.size(); i++) {
+            List<Map<?, ?>> newerLayers = currentLayers.subList(0, i);
+            currentLayers.get(i).forEach((key, value) -> {
+                if (value != null && !super.containsKey(key) && !removedKeys.contains(key)
+                        && newerLayers.stream().noneMatch(layer -> layer.containsKey(key))) {
+                    action.accept(key, value);
+                }
+            });
+        }
+    }
+
+    /**
+     * Copies visible entries of the layers to own entries
+     */
+    private synchronized void flatten() {
+        if (layers.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Object, Object>> entries = new ArrayList<>();
+        forEachLayered((key, value) -> entries.add(Map.entry(key, value)));
+        layers = List.of();
+        removedKeys.clear();
+        entries.forEach(entry -> super.put(entry.getKey(), entry.getValue()));
+    }
+
+    @Override
+    public Enumeration<Object> keys() {
+        flatten();
+        return super.keys();
+    }
+
+    @Override
+    public Enumeration<Object> elements() {
+        flatten();
+        return super.elements();
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        flatten();
+        return super.contains(value);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        flatten();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        flatten();
+        return super.keySet();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        flatten();
+        return super.entrySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        flatten();
+        return super.values();
+    }
+
+    @Override
+    public synchronized boolean equals(Object o) {
+        flatten();
+        return super.equals(o);
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        flatten();
+        return super.hashCode();
+    }
+
+    @Override
+    public synchronized String toString() {
+        flatten();
+        return super.toString();
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        flatten();
+        modified();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        flatten();
+        modified();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public synchronized Object replace(Object key, Object value) {
+        flatten();
+        modified();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        flatten();
+        modified();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        flatten();
+        modified();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        flatten();
+        modified();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        flatten();
+        modified();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        flatten();
+        modified();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        flatten();
+        modified();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public synchronized Object clone() {
+        flatten();
+        LayeredProperties clone = (LayeredProperties) super.clone();
+        clone.removedKeys = ConcurrentHashMap.newKeySet();
+        return clone;
+    }
+
+    private synchronized Object writeReplace() {
+        Properties properties = new Properties();
+        forEach(properties::put);
+        return properties;
+    }
+}
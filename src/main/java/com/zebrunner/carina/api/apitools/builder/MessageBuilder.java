@@ -15,42 +15,99 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.builder;
 
-import freemarker.cache.ClassTemplateLoader;
-import freemarker.template.Configuration;
+import com.zebrunner.carina.api.config.APIConfiguration;
+import com.zebrunner.carina.utils.config.Configuration;
+import freemarker.template.DefaultMapAdapter;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
+import freemarker.template.utility.ObjectWrapperWithAPISupport;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Renders FreeMarker templates loaded through {@link TemplateRegistry}. Templates are thread-safe, so messages are
+ * rendered concurrently; render time of each template is collected to {@link TemplateRenderStats}
+ */
 public class MessageBuilder {
 
-    private static final Configuration FREEMARKER_CONFIGURATION;
+    private static final ObjectWrapperWithAPISupport OBJECT_WRAPPER;
+    private static final Map<String, TemplateRenderStats> RENDER_STATS = new ConcurrentHashMap<>();
 
     static {
-        FREEMARKER_CONFIGURATION = new Configuration(Configuration.VERSION_2_3_0);
-        FREEMARKER_CONFIGURATION.setTemplateLoader(new ClassTemplateLoader(MessageBuilder.class, "/"));
+        OBJECT_WRAPPER = (ObjectWrapperWithAPISupport) TemplateRegistry.getConfiguration().getObjectWrapper();
+        if (Configuration.get(APIConfiguration.Parameter.API_TEMPLATES_PRELOAD, Boolean.class).orElse(false)) {
+            TemplateRegistry.preloadIndexed();
+        }
     }
 
     private MessageBuilder() {
         // hide
     }
 
-    public static synchronized String buildStringMessage(String templatePath, Properties... propertiesArr) {
+    public static String buildStringMessage(String templatePath, Properties... propertiesArr) {
         try (StringWriter sw = new StringWriter()) {
-            Template template = FREEMARKER_CONFIGURATION.getTemplate(templatePath);
-            Properties resultProperties = new Properties();
-            for (Properties properties : propertiesArr) {
-                resultProperties.putAll(properties);
-            }
-            template.process(resultProperties, sw);
+            writeMessage(templatePath, sw, propertiesArr);
             return sw.getBuffer().toString();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Renders the template directly to the writer without building the whole message in memory
+     *
+     * @param templatePath  path to the template in the classpath
+     * @param writer        writer of the message, it is not closed by this method
+     * @param propertiesArr data model of the template
+     * @throws IOException if template can't be loaded or written to the writer
+     */
+    public static void writeMessage(String templatePath, Writer writer, Properties... propertiesArr) throws IOException {
+        Template template = TemplateRegistry.getTemplate(templatePath);
+        long start = System.nanoTime();
+        try {
+            template.process(DefaultMapAdapter.adapt(toDataModel(propertiesArr), OBJECT_WRAPPER), writer);
         } catch (TemplateException e) {
             throw new RuntimeException(e);
         }
+        RENDER_STATS.computeIfAbsent(templatePath, TemplateRenderStats::new)
+                .record(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns render statistics of the template
+     *
+     * @param templatePath path to the template, the same as passed to {@link #buildStringMessage(String, Properties...)}
+     * @return see {@link TemplateRenderStats}, or empty Optional if the template was not rendered yet
+     */
+    public static Optional<TemplateRenderStats> getRenderStats(String templatePath) {
+        return Optional.ofNullable(RENDER_STATS.get(templatePath));
+    }
+
+    /**
+     * @return render statistics of all rendered templates by template path
+     */
+    public static Map<String, TemplateRenderStats> getRenderStats() {
+        return Collections.unmodifiableMap(RENDER_STATS);
+    }
+
+    private static Map<String, Object> toDataModel(Properties... propertiesArr) {
+        int size = 0;
+        for (Properties properties : propertiesArr) {
+            size += properties.size();
+        }
+        Map<String, Object> dataModel = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (Properties properties : propertiesArr) {
+            properties.forEach((key, value) -> dataModel.put(String.valueOf(key), value));
+        }
+        return dataModel;
     }
 }
@@ -15,7 +15,6 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.builder;
 
-import java.util.Map.Entry;
 import java.util.Properties;
 
 @Deprecated
@@ -24,11 +23,11 @@ public class NotStringValuesProcessor implements PropertiesProcessor {
 	@Override
 	public Properties process(Properties in) {
 		Properties out = new Properties();
-		for (Entry<Object, Object> entry : in.entrySet()) {
-			if (!(entry.getValue() instanceof String)) {
-				out.put(entry.getKey(), entry.getValue().toString());
+		in.forEach((key, value) -> {
+			if (!(value instanceof String)) {
+				out.put(key, value.toString());
 			}
-		}
+		});
 		return out;
 	}
 }
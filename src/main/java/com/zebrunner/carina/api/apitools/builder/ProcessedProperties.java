@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Result of {@link PropertiesProcessorMain#processProperties(Properties, List)}.
+ * Processing is idempotent, so until these properties are modified they are not processed again with the same ignored processors
+ */
+final class ProcessedProperties extends LayeredProperties {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<Class<? extends PropertiesProcessor>> ignoredPropertiesProcessorClasses;
+    private transient volatile boolean modified;
+
+    /**
+     * @param in        processed properties, layers of {@link LayeredProperties} are shared
+     * @param processed values changed by the processors
+     */
+    ProcessedProperties(Properties in, Map<Object, Object> processed, List<Class<? extends PropertiesProcessor>> ignoredPropertiesProcessorClasses) {
+        super(asLayered(in));
+        putAll(processed);
+        this.ignoredPropertiesProcessorClasses = ignoredPropertiesProcessorClasses == null ? null : List.copyOf(ignoredPropertiesProcessorClasses);
+        this.modified = false;
+    }
+
+    private static LayeredProperties asLayered(Properties in) {
+        if (in instanceof LayeredProperties) {
+            return (LayeredProperties) in;
+        }
+        LayeredProperties layered = new LayeredProperties();
+        in.forEach(layered::put);
+        return layered;
+    }
+
+    boolean isProcessedWith(List<Class<? extends PropertiesProcessor>> ignoredPropertiesProcessorClasses) {
+        return !modified && Objects.equals(this.ignoredPropertiesProcessorClasses,
+                ignoredPropertiesProcessorClasses == null ? null : List.copyOf(ignoredPropertiesProcessorClasses));
+    }
+
+    @Override
+    void modified() {
+        modified = true;
+    }
+}
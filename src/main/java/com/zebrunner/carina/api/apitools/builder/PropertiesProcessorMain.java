@@ -16,7 +16,9 @@
 package com.zebrunner.carina.api.apitools.builder;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.function.Predicate;
 
@@ -35,13 +37,25 @@ public class PropertiesProcessorMain {
         processors.add(new NotStringValuesProcessor());
     }
 
+    /**
+     * Processes properties by all processors except ignored ones. Properties returned by this method are only copied
+     * by the next calls until they are modified, so repeated processing (for example on each template rendering) does not
+     * generate and decrypt values again. Layers of {@link LayeredProperties} are shared with the result, only changed values are stored in it
+     *
+     * @param in                                properties to process
+     * @param ignoredPropertiesProcessorClasses processors that should not be executed, null to execute all of them
+     * @return processed properties
+     */
     public static Properties processProperties(Properties in, List<Class<? extends PropertiesProcessor>> ignoredPropertiesProcessorClasses) {
-        Properties out = new Properties();
-        out.putAll(in);
+        if (in instanceof ProcessedProperties && ((ProcessedProperties) in).isProcessedWith(ignoredPropertiesProcessorClasses)) {
+            // copy is still returned, as callers may modify the result independently of the source
+            return new ProcessedProperties(in, Map.of(), ignoredPropertiesProcessorClasses);
+        }
+        Map<Object, Object> processed = new HashMap<>();
         processors.stream()
                 .filter(isProcessorToExecute(ignoredPropertiesProcessorClasses))
-                .forEach(processor -> out.putAll(processor.process(in)));
-        return out;
+                .forEach(processor -> processed.putAll(processor.process(in)));
+        return new ProcessedProperties(in, processed, ignoredPropertiesProcessorClasses);
     }
 
     private static Predicate<PropertiesProcessor> isProcessorToExecute(List<Class<? extends PropertiesProcessor>> ignoredPropertiesProcessorClasses) {
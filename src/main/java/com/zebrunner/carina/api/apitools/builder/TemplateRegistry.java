@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import com.zebrunner.carina.api.config.APIConfiguration;
+import freemarker.cache.CacheStorage;
+import freemarker.cache.CacheStorageWithGetSize;
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.ConcurrentCacheStorage;
+import freemarker.cache.SoftCacheStorage;
+import freemarker.cache.StrongCacheStorage;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the FreeMarker templates used by {@link MessageBuilder}.<br>
+ * In production mode ({@link APIConfiguration.Parameter#API_TEMPLATES_PRODUCTION_MODE}) templates are never checked
+ * for modification and never evicted from the cache. Templates can be precompiled in parallel by {@link #preload(Collection)}
+ * or, for the paths listed in the {@value #TEMPLATE_INDEX} classpath resources, by {@link #preloadIndexed()}
+ */
+public final class TemplateRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /**
+     * Classpath resource with template paths (one per line) that carina-api-processor generates
+     * from {@code @RequestTemplatePath} and {@code @ResponseTemplatePath} annotations
+     */
+    public static final String TEMPLATE_INDEX = "META-INF/carina-api/templates";
+
+    private static final long DEV_UPDATE_DELAY_MILLIS = 5000;
+
+    private TemplateRegistry() {
+        // hide
+    }
+
+    /**
+     * Returns the compiled template, loading it on the first call
+     *
+     * @param templatePath path to the template in the classpath
+     * @return see {@link Template}
+     * @throws IOException if template can't be found or parsed
+     */
+    public static Template getTemplate(String templatePath) throws IOException {
+        return RegistryHolder.CONFIGURATION.getTemplate(templatePath);
+    }
+
+    /**
+     * Precompiles templates in parallel. Templates that can't be loaded are logged and skipped
+     *
+     * @param templatePaths paths to the templates in the classpath
+     * @return number of loaded templates
+     */
+    public static int preload(Collection<String> templatePaths) {
+        AtomicInteger loaded = new AtomicInteger();
+        templatePaths.parallelStream()
+                .distinct()
+                .forEach(templatePath -> {
+                    try {
+                        RegistryHolder.CONFIGURATION.getTemplate(templatePath);
+                        loaded.incrementAndGet();
+                    } catch (IOException e) {
+                        LOGGER.warn("Unable to preload template '{}': {}", templatePath, e.getMessage());
+                    }
+                });
+        return loaded.get();
+    }
+
+    /**
+     * Precompiles all templates listed in the {@value #TEMPLATE_INDEX} classpath resources
+     *
+     * @return number of loaded templates
+     */
+    public static int preloadIndexed() {
+        Set<String> templatePaths = readIndex();
+        long start = System.nanoTime();
+        int loaded = preload(templatePaths);
+        LOGGER.debug("{} of {} indexed templates preloaded in {}ms", loaded, templatePaths.size(), (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    public static boolean isProductionMode() {
+        return com.zebrunner.carina.utils.config.Configuration.get(APIConfiguration.Parameter.API_TEMPLATES_PRODUCTION_MODE, Boolean.class)
+                .orElse(false);
+    }
+
+    /**
+     * @return statistics of the template cache
+     */
+    public static CacheStats getCacheStats() {
+        CountingCacheStorage storage = RegistryHolder.CACHE_STORAGE;
+        return new CacheStats(storage.hits.sum(), storage.misses.sum(), storage.getSize());
+    }
+
+    static Configuration getConfiguration() {
+        return RegistryHolder.CONFIGURATION;
+    }
+
+    private static Set<String> readIndex() {
+        Set<String> templatePaths = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> indexes = TemplateRegistry.class.getClassLoader().getResources(TEMPLATE_INDEX);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                            .map(String::trim)
+                            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                            .forEach(templatePaths::add);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read template index", e);
+        }
+        return templatePaths;
+    }
+
+    private static final class RegistryHolder {
+
+        private static final CountingCacheStorage CACHE_STORAGE;
+        private static final Configuration CONFIGURATION;
+
+        static {
+            boolean productionMode = isProductionMode();
+            CACHE_STORAGE = new CountingCacheStorage(productionMode
+                    ? new StrongCacheStorage()
+                    : new SoftCacheStorage());
+            CONFIGURATION = new Configuration(Configuration.VERSION_2_3_0);
+            CONFIGURATION.setTemplateLoader(new ClassTemplateLoader(MessageBuilder.class, "/"));
+            CONFIGURATION.setCacheStorage(CACHE_STORAGE);
+            CONFIGURATION.setTemplateUpdateDelayMilliseconds(productionMode ? Long.MAX_VALUE : DEV_UPDATE_DELAY_MILLIS);
+        }
+
+        private RegistryHolder() {
+            // hide
+        }
+    }
+
+    /**
+     * Statistics of the template cache: lookups of already loaded templates are hits, lookups that load templates are misses
+     */
+    public static final class CacheStats {
+
+        private final long hitCount;
+        private final long missCount;
+        private final int size;
+
+        private CacheStats(long hitCount, long missCount, int size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.size = size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return number of templates in the cache
+         */
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 1.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, size=%d", hitCount, missCount, size);
+        }
+    }
+
+    private static final class CountingCacheStorage implements ConcurrentCacheStorage, CacheStorageWithGetSize {
+
+        private final CacheStorage storage;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private CountingCacheStorage(CacheStorage storage) {
+            this.storage = storage;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Object value = storage.get(key);
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return value;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            storage.put(key, value);
+        }
+
+        @Override
+        public void remove(Object key) {
+            storage.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            storage.clear();
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return storage instanceof ConcurrentCacheStorage && ((ConcurrentCacheStorage) storage).isConcurrent();
+        }
+
+        @Override
+        public int getSize() {
+            return storage instanceof CacheStorageWithGetSize ? ((CacheStorageWithGetSize) storage).getSize() : -1;
+        }
+    }
+}
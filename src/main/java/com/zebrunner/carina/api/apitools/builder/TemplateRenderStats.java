@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Render statistics of a single template collected by {@link MessageBuilder}.
+ * Values are updated without locking, so they may be slightly inconsistent with each other while templates are rendered
+ */
+public final class TemplateRenderStats {
+
+    private final String templatePath;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    TemplateRenderStats(String templatePath) {
+        this.templatePath = templatePath;
+    }
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public String getTemplatePath() {
+        return templatePath;
+    }
+
+    /**
+     * @return number of successful renders
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    public Duration getTotalTime() {
+        return Duration.ofNanos(totalNanos.sum());
+    }
+
+    public Duration getMaxTime() {
+        return Duration.ofNanos(maxNanos.get());
+    }
+
+    public Duration getAverageTime() {
+        long renders = count.sum();
+        return renders == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / renders);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, avg=%dus, max=%dus", templatePath, getCount(), getAverageTime().toNanos() / 1000,
+                getMaxTime().toNanos() / 1000);
+    }
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+/**
+ * Custom keyword of the {@link GenerateProcessor}: property value part {@code <keyword>(<argument>)} is replaced by
+ * the generated value. Implementations are discovered through {@link java.util.ServiceLoader}.<br>
+ * Example: keyword {@code generate_uuid} handles {@code generate_uuid()} placeholders
+ */
+public interface ValueGenerator {
+
+    /**
+     * @return keyword of the placeholder, should not be one of the built-in keywords
+     *         ({@code generate_word}, {@code generate_number}, {@code generate_date})
+     */
+    String getKeyword();
+
+    /**
+     * @param argument text between the parentheses of the placeholder, can be empty
+     * @return generated value
+     */
+    String generate(String argument);
+}
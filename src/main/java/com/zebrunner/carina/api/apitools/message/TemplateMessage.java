@@ -15,14 +15,19 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.message;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
+import com.zebrunner.carina.api.apitools.builder.LayeredProperties;
 import com.zebrunner.carina.api.apitools.builder.PropertiesProcessor;
 import com.zebrunner.carina.api.apitools.builder.MessageBuilder;
 import com.zebrunner.carina.api.apitools.util.PropertiesUtil;
 import org.apache.commons.configuration2.CompositeConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ConfigurationMap;
 
 import com.zebrunner.carina.api.apitools.builder.PropertiesProcessorMain;
 
@@ -41,7 +46,7 @@ public class TemplateMessage extends Message {
     private String propertiesPath;
 
     public TemplateMessage() {
-        propertiesStorage = new Properties();
+        propertiesStorage = new LayeredProperties();
     }
 
     public String getTemplatePath() {
@@ -67,8 +72,18 @@ public class TemplateMessage extends Message {
         return compositeConfiguration;
     }
 
+    /**
+     * Adds configuration values to the properties storage. Values are not copied when the storage is {@link LayeredProperties},
+     * the configuration is added as a read-only layer and its later changes stay visible through the storage
+     *
+     * @param compositeConfiguration environment configuration
+     */
     public void setEnvironmentConfiguration(CompositeConfiguration compositeConfiguration) {
         this.compositeConfiguration = compositeConfiguration;
+        if (propertiesStorage instanceof LayeredProperties) {
+            ((LayeredProperties) propertiesStorage).addLayer(new ConfigurationLayer(compositeConfiguration));
+            return;
+        }
         Iterator<?> keys = compositeConfiguration.getKeys();
         while (keys.hasNext()) {
             String key = (String) keys.next();
@@ -110,4 +125,32 @@ public class TemplateMessage extends Message {
         propertiesStorage = PropertiesProcessorMain.processProperties(propertiesStorage, ignoredPropertiesProcessorClasses);
         return MessageBuilder.buildStringMessage(templatePath, propertiesStorage);
     }
+
+    /**
+     * Renders the message directly to the writer, see {@link MessageBuilder#writeMessage(String, Writer, Properties...)}
+     *
+     * @param writer writer of the message
+     * @throws IOException if template can't be loaded or written to the writer
+     */
+    public void writeMessageText(Writer writer) throws IOException {
+        // the message can be written on another thread, so the processed properties are not stored in the message
+        Properties processedProperties = PropertiesProcessorMain.processProperties(propertiesStorage, ignoredPropertiesProcessorClasses);
+        MessageBuilder.writeMessage(templatePath, writer, processedProperties);
+    }
+
+    /**
+     * Map view of the configuration with the key lookup of the configuration itself:
+     * {@link ConfigurationMap} checks keys by scanning all entries
+     */
+    private static final class ConfigurationLayer extends ConfigurationMap {
+
+        ConfigurationLayer(Configuration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && getConfiguration().containsKey(String.valueOf(key));
+        }
+    }
 }
@@ -17,65 +17,108 @@ package com.zebrunner.carina.api.apitools.util;
 
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Random;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
 
+/**
+ * Generates random test data. Values are generated by the random source of the current thread, so generation is not
+ * contended between threads. Use {@link #setSeed(long)} to make values generated on the thread reproducible
+ */
 public class GenerationUtil {
 
     public static final String DEFAULT_TIME_ZONE = "America/Los_Angeles";
     private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
-    private static final Random RANDOM = new Random();
+    private static final ThreadLocal<SplittableRandom> SEEDED_RANDOM = new ThreadLocal<>();
+    // time zone -> pattern -> date format, SimpleDateFormat is not thread-safe, so each thread has its own instances
+    private static final ThreadLocal<Map<String, Map<String, SimpleDateFormat>>> DATE_FORMATS = ThreadLocal.withInitial(HashMap::new);
 
     private GenerationUtil() {
         //hide
     }
 
+    /**
+     * Makes values generated on the current thread reproducible: the same seed produces the same sequence of words
+     * and numbers, for example for deterministic load runs
+     *
+     * @param seed seed of the random source of the current thread
+     */
+    public static void setSeed(long seed) {
+        SEEDED_RANDOM.set(new SplittableRandom(seed));
+    }
+
+    /**
+     * Returns the current thread to the non-reproducible random source
+     */
+    public static void resetSeed() {
+        SEEDED_RANDOM.remove();
+    }
+
+    /**
+     * Generates the current time in the time zone shifted by the offset
+     *
+     * @param format       {@link SimpleDateFormat} pattern
+     * @param offset       amount of calendar units to add
+     * @param calendarUnit {@link Calendar} field, for example {@link Calendar#DAY_OF_YEAR}
+     * @param timeZone     time zone id, system time zone if null
+     * @return formatted time
+     */
     public static String generateTime(String format, int offset, int calendarUnit, String timeZone) {
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
         Calendar calendar = Calendar.getInstance();
-        if (timeZone != null) {
-            sdf.setTimeZone(TimeZone.getTimeZone(timeZone));
-        }
         calendar.add(calendarUnit, offset);
-        return sdf.format(calendar.getTime());
+        return getDateFormat(format, timeZone).format(calendar.getTime());
     }
 
     public static String generateTime(String format, int offset, int calendarUnit) {
         return generateTime(format, offset, calendarUnit, DEFAULT_TIME_ZONE);
     }
 
-    private static String generateBase(int keySize) {
-        StringBuilder base = new StringBuilder();
-        for (int i = 0; i < keySize; i++) {
-            base.append(RANDOM.nextInt(9));
+    private static SimpleDateFormat getDateFormat(String format, String timeZone) {
+        Map<String, SimpleDateFormat> dateFormats = DATE_FORMATS.get()
+                .computeIfAbsent(timeZone == null ? "" : timeZone, zone -> new HashMap<>());
+        SimpleDateFormat dateFormat = dateFormats.get(format);
+        if (dateFormat == null) {
+            dateFormat = new SimpleDateFormat(format);
+            if (timeZone != null) {
+                dateFormat.setTimeZone(TimeZone.getTimeZone(timeZone));
+            }
+            dateFormats.put(format, dateFormat);
         }
-        return base.toString();
+        return dateFormat;
+    }
+
+    private static IntUnaryOperator random() {
+        SplittableRandom seeded = SEEDED_RANDOM.get();
+        return seeded != null ? seeded::nextInt : ThreadLocalRandom.current()::nextInt;
     }
 
     public static String generateWord(int keySize) {
-        StringBuilder result = new StringBuilder();
-        String base = generateBase(keySize);
-        int position = RANDOM.nextInt(ALPHABET.length() - 1);
+        IntUnaryOperator random = random();
+        char[] result = new char[keySize];
+        int position = random.applyAsInt(ALPHABET.length() - 1);
         int sign = -1;
         for (int i = 0; i < keySize; i++) {
-
-            int step = Integer.parseInt(base.substring(i, i + 1)) * sign;
+            int step = random.applyAsInt(9) * sign;
             if (position + step > 0 && position + step < ALPHABET.length() - 1) {
                 position += step;
             } else {
                 position -= step;
             }
-            result.append(ALPHABET.charAt(position));
-            sign *= -1;
+            result[i] = ALPHABET.charAt(position);
+            sign = -sign;
         }
-        return result.toString();
+        return new String(result);
     }
 
     public static String generateNumber(int keySize) {
-        StringBuilder result = new StringBuilder();
+        IntUnaryOperator random = random();
+        char[] result = new char[keySize];
         for (int i = 0; i < keySize; i++) {
-            result.append(RANDOM.nextInt(10));
+            result[i] = (char) ('0' + random.applyAsInt(10));
         }
-        return result.toString();
+        return new String(result);
     }
 }
@@ -25,6 +25,7 @@ public final class JsonComparatorContext {
 
     private final Map<String, Predicate<Object>> namedPredicates;
     private final List<JsonKeywordComparator> comparators;
+    private int parallelism = 1;
 
     public JsonComparatorContext() {
         this.namedPredicates = new ConcurrentHashMap<>();
@@ -46,6 +47,21 @@ public final class JsonComparatorContext {
         return this;
     }
 
+    /**
+     * Enables parallel comparison of large arrays of objects on the specified number of threads. Failure messages are
+     * the same as in sequential comparison, custom comparators and predicates should be thread-safe
+     *
+     * @param parallelism number of threads, 1 by default
+     * @return JsonComparatorContext object
+     */
+    public JsonComparatorContext withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive, but was: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
     Map<String, Predicate<Object>> getNamedPredicates() {
         return namedPredicates;
     }
@@ -54,6 +70,10 @@ public final class JsonComparatorContext {
         return comparators;
     }
 
+    int getParallelism() {
+        return parallelism;
+    }
+
     public static JsonComparatorContext context() {
         return new JsonComparatorContext();
     }
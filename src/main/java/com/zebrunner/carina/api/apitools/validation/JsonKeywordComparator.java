@@ -21,4 +21,15 @@ public interface JsonKeywordComparator {
 
     boolean isMatch(Object expectedValue);
 
+    /**
+     * Keyword that all matched expected values start with. Comparators with keyword are looked up by the prefix of
+     * string expected values and are not called for other values; comparators without keyword are checked by
+     * {@link #isMatch(Object)} for every expected value
+     *
+     * @return keyword or null if comparator can match values without common prefix
+     */
+    default String getKeyword() {
+        return null;
+    }
+
 }
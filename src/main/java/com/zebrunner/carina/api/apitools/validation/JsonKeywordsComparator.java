@@ -24,14 +24,19 @@ import org.skyscreamer.jsonassert.comparator.DefaultComparator;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ServiceLoader;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class JsonKeywordsComparator extends DefaultComparator {
 
     private final String actualRsBody;
     private final String[] validationFlags;
     private final List<JsonKeywordComparator> comparators;
+    private final KeywordComparators keywordComparators;
     private final JsonComparatorContext context;
+    private final JSONCompareMode mode;
+    // actual json parsed by the first comparison, it is shared with ognl comparator
+    private Object parsedActual;
 
     public JsonKeywordsComparator(String actualRsBody, JSONCompareMode mode, String... validationFlags) {
         this(actualRsBody, mode, null, validationFlags);
@@ -39,22 +44,23 @@ public class JsonKeywordsComparator extends DefaultComparator {
 
     public JsonKeywordsComparator(String actualRsBody, JSONCompareMode mode, JsonComparatorContext context, String... validationFlags) {
         super(mode);
+        this.mode = mode;
         this.actualRsBody = actualRsBody;
         this.validationFlags = validationFlags;
         this.context = context;
         this.comparators = new ArrayList<>();
 
         initializeComparators();
+        this.keywordComparators = new KeywordComparators(comparators);
     }
 
     private void initializeComparators() {
         this.comparators.add(new SkipKeywordComparator());
         this.comparators.add(new TypeKeywordComparator());
         this.comparators.add(new RegexKeywordComparator());
-        this.comparators.add(new OgnlKeywordsComparator(actualRsBody));
+        this.comparators.add(new OgnlKeywordsComparator(actualRsBody, () -> parsedActual));
 
-        ServiceLoader.load(JsonKeywordComparator.class)
-                .forEach(this.comparators::add);
+        this.comparators.addAll(KeywordComparators.loadServiceComparators());
 
         if (context != null) {
             this.comparators.add(new PredicateKeywordComparator(context.getNamedPredicates()));
@@ -64,74 +70,137 @@ public class JsonKeywordsComparator extends DefaultComparator {
 
     @Override
     public void compareValues(String prefix, Object expectedValue, Object actualValue, JSONCompareResult result) {
-        comparators.stream()
-                .filter(comparator -> comparator.isMatch(expectedValue))
-                .findFirst()
-                .ifPresentOrElse(comparator ->
-                                comparator.compare(prefix, expectedValue, actualValue, new JsonCompareResultWrapper(this, result)),
-                        () -> compareByDefault(prefix, expectedValue, actualValue, result)
-                );
+        JsonKeywordComparator comparator = keywordComparators.find(expectedValue);
+        if (comparator != null) {
+            comparator.compare(prefix, expectedValue, actualValue, new JsonCompareResultWrapper(this, result));
+        } else {
+            compareByDefault(prefix, expectedValue, actualValue, result);
+        }
     }
 
     void compareByDefault(String prefix, Object expectedValue, Object actualValue, JSONCompareResult result) {
         super.compareValues(prefix, expectedValue, actualValue, result);
     }
 
+    @Override
+    public void compareJSON(String prefix, JSONObject expected, JSONObject actual, JSONCompareResult result) {
+        if (parsedActual == null) {
+            parsedActual = actual;
+        }
+        super.compareJSON(prefix, expected, actual, result);
+    }
+
     @Override
     public void compareJSONArray(String prefix, JSONArray expected, JSONArray actual, JSONCompareResult result) {
-        if ((!((validationFlags != null && validationFlags.length > 0) &&
-                (ArrayUtils.contains(validationFlags, JsonCompareKeywords.ARRAY_CONTAINS.getKey() + prefix)))) &&
-                expected.length() != actual.length()) {
+        if (parsedActual == null) {
+            parsedActual = actual;
+        }
+        if (isArrayLengthValidated(prefix) && expected.length() != actual.length()) {
             result.fail(String.format("%s[]%nArrays length differs. Expected length=%d but actual length=%d%n", prefix,
                     expected.length(), actual.length()));
             return;
         }
 
-        JSONArray actualTmp = new JSONArray();
-        for (int i1 = 0; i1 < actual.length(); i1++) {
-            actualTmp.put(actual.get(i1));
-        }
+        UnmatchedArrayItems<JSONObject> remaining = new UnmatchedArrayItems<>(actual.length(), i -> (JSONObject) actual.get(i), JSONObject::opt);
         for (int i = 0; i < expected.length(); ++i) {
-            boolean isEquals = false;
             if (!JSONObject.class.equals(expected.get(i).getClass())) {
                 compareJSONArrayForSimpleTypeWContains(prefix, expected, actual, result);
                 break;
             }
             JSONObject expectedValue = (JSONObject) expected.get(i);
-
-            JSONObject actValueMostlySimilar = (JSONObject) actualTmp.get(0);
-            int actValueMostlySimilarIndex = 0;
-            int minErrorsCount = Integer.MAX_VALUE;
-
-            for (int j = 0; j < actualTmp.length(); ++j) {
-                JSONObject actualValue = (JSONObject) actualTmp.get(j);
-                JSONCompareResult tmpResult = new JSONCompareResult();
-                compareValues(prefix + "[" + i + "]", expectedValue, actualValue, tmpResult);
-                if (tmpResult.passed()) {
-                    isEquals = true;
-                    actValueMostlySimilarIndex = j;
-                    break;
-                }
-                if (tmpResult.getFieldFailures().size() < minErrorsCount) {
-                    minErrorsCount = tmpResult.getFieldFailures().size();
-                    actValueMostlySimilar = actualValue;
-                    actValueMostlySimilarIndex = j;
-                }
+            String itemPrefix = prefix + "[" + i + "]";
+            if (remaining.isEmpty()) {
+                result.fail(String.format("%s%nExpected array item '%s' is missed in actual array%n", itemPrefix, expectedValue));
+                continue;
             }
-            if (!isEquals) {
+
+            int actValueIndex = findEqual(itemPrefix, expectedValue, remaining);
+            if (actValueIndex < 0) {
+                actValueIndex = findMostlySimilar(itemPrefix, expectedValue, remaining);
                 JSONCompareResult tmpResult = new JSONCompareResult();
-                super.compareJSON(prefix + "[" + i + "]", expectedValue, actValueMostlySimilar, tmpResult);
+                super.compareJSON(itemPrefix, expectedValue, remaining.get(actValueIndex), tmpResult);
                 result.fail(tmpResult.getMessage());
             }
+            remaining.remove(actValueIndex);
+        }
+    }
 
-            JSONArray arrayAfterRemove = new JSONArray();
-            for (int i1 = 0; i1 < actualTmp.length(); i1++) {
-                if (i1 != actValueMostlySimilarIndex) {
-                    arrayAfterRemove.put(actualTmp.get(i1));
-                }
+    /**
+     * Compares expected item only with actual items that have the same literal (not keyword) fields,
+     * as other items can't be equal to it
+     *
+     * @return index of the first equal actual item or -1
+     */
+    private int findEqual(String prefix, JSONObject expectedValue, UnmatchedArrayItems<JSONObject> remaining) {
+        Iterable<Integer> candidates = isKeyword(expectedValue)
+                ? remaining.indexes()
+                : remaining.candidates(literalFields(expectedValue));
+        for (int j : candidates) {
+            JSONCompareResult tmpResult = new JSONCompareResult();
+            compareValues(prefix, expectedValue, remaining.get(j), tmpResult);
+            if (tmpResult.passed()) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index of the first actual item with the minimum number of field failures
+     */
+    private int findMostlySimilar(String prefix, JSONObject expectedValue, UnmatchedArrayItems<JSONObject> remaining) {
+        int actValueMostlySimilarIndex = -1;
+        int minErrorsCount = Integer.MAX_VALUE;
+        for (int j : remaining.indexes()) {
+            JSONCompareResult tmpResult = new JSONCompareResult();
+            compareValues(prefix, expectedValue, remaining.get(j), tmpResult);
+            if (actValueMostlySimilarIndex < 0 || tmpResult.getFieldFailures().size() < minErrorsCount) {
+                minErrorsCount = tmpResult.getFieldFailures().size();
+                actValueMostlySimilarIndex = j;
+            }
+        }
+        return actValueMostlySimilarIndex;
+    }
+
+    private boolean isKeyword(Object expectedValue) {
+        return keywordComparators.find(expectedValue) != null;
+    }
+
+    /**
+     * @return false if the array is validated with {@link JsonCompareKeywords#ARRAY_CONTAINS} flag
+     */
+    boolean isArrayLengthValidated(String prefix) {
+        return validationFlags == null || !ArrayUtils.contains(validationFlags, JsonCompareKeywords.ARRAY_CONTAINS.getKey() + prefix);
+    }
+
+    KeywordComparators getKeywordComparators() {
+        return keywordComparators;
+    }
+
+    JSONCompareMode getMode() {
+        return mode;
+    }
+
+    int getParallelism() {
+        return context == null ? 1 : context.getParallelism();
+    }
+
+    void setParsedActual(Object parsedActual) {
+        this.parsedActual = parsedActual;
+    }
+
+    /**
+     * @return fields of the expected object that are compared by equality, sorted by name
+     */
+    private Map<String, Object> literalFields(JSONObject expectedValue) {
+        Map<String, Object> fields = new TreeMap<>();
+        for (String key : expectedValue.keySet()) {
+            Object value = expectedValue.get(key);
+            if (UnmatchedArrayItems.isLiteral(value) && !isKeyword(value)) {
+                fields.put(key, UnmatchedArrayItems.normalize(value));
             }
-            actualTmp = arrayAfterRemove;
         }
+        return fields;
     }
 
     private void compareJSONArrayForSimpleTypeWContains(String prefix, JSONArray expected, JSONArray actual, JSONCompareResult result) {
@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Compares Jackson trees with the same rules and failure messages as {@link JsonKeywordsComparator} does for org.json
+ * objects, so the actual json parsed once can be shared with other consumers. Values are converted to org.json types
+ * only to be passed to the keyword comparators and to the failure messages.<br>
+ * If parallelism is set by {@link JsonComparatorContext#withParallelism(int)}, items of large arrays are matched in
+ * chunks: equal actual items are searched for all expected items of the chunk in parallel, and then they are assigned in
+ * the order of the expected items, so the result is the same as in sequential comparison
+ */
+final class JsonTreeComparator {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MIN_PARALLEL_ARRAY_SIZE = 128;
+    private static final int CHUNK_SIZE_PER_THREAD = 4;
+
+    private final JsonKeywordsComparator comparator;
+    private final KeywordComparators keywordComparators;
+    private final int parallelism;
+    private ForkJoinPool pool;
+
+    JsonTreeComparator(JsonKeywordsComparator comparator) {
+        this.comparator = comparator;
+        this.keywordComparators = comparator.getKeywordComparators();
+        this.parallelism = comparator.getParallelism();
+    }
+
+    /**
+     * @param expected expected json object or array
+     * @param actual   actual json object or array
+     * @return result of the comparison
+     */
+    JSONCompareResult compare(JsonNode expected, JsonNode actual) {
+        comparator.setParsedActual(actual);
+        JSONCompareResult result = new JSONCompareResult();
+        try {
+            if (expected.isObject() && actual.isObject()) {
+                compareObject("", expected, actual, result);
+            } else if (expected.isArray() && actual.isArray()) {
+                compareArray("", expected, actual, result);
+            } else {
+                result.fail("", describe(expected), describe(actual));
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts tree node to the value that org.json parser produces for it
+     */
+    static Object toJsonValue(JsonNode node) {
+        switch (node.getNodeType()) {
+        case STRING:
+            return node.textValue();
+        case NUMBER:
+            if (node.isInt()) {
+                return node.intValue();
+            }
+            if (node.isLong()) {
+                return node.longValue();
+            }
+            return node.isBigInteger() || node.isBigDecimal() ? node.numberValue() : node.doubleValue();
+        case BOOLEAN:
+            return node.booleanValue();
+        case NULL:
+            return JSONObject.NULL;
+        case OBJECT:
+            return new JSONObject(node.toString());
+        case ARRAY:
+            return new JSONArray(node.toString());
+        default:
+            return node.asText();
+        }
+    }
+
+    /**
+     * Converts tree node for the failure message. {@link JSONCompareResult} describes objects and arrays by the type only,
+     * so they are replaced by the empty ones to not convert the whole subtree
+     */
+    private static Object describe(JsonNode node) {
+        if (node.isObject()) {
+            return new JSONObject();
+        }
+        return node.isArray() ? new JSONArray() : toJsonValue(node);
+    }
+
+    private static boolean isContainer(JsonNode node) {
+        return node.isObject() || node.isArray();
+    }
+
+    private void compareValues(String prefix, JsonNode expected, JsonNode actual, JSONCompareResult result) {
+        JsonKeywordComparator keywordComparator = findKeywordComparator(expected);
+        if (keywordComparator != null) {
+            compareKeyword(prefix, keywordComparator, expected, actual, result);
+        } else {
+            compareByDefault(prefix, expected, actual, result);
+        }
+    }
+
+    private void compareKeyword(String prefix, JsonKeywordComparator keywordComparator, JsonNode expected, JsonNode actual,
+            JSONCompareResult result) {
+        if (keywordComparator instanceof SkipKeywordComparator) {
+            return;
+        }
+        // type and regex comparators use only the type of the actual object or array, so its content is not converted
+        boolean typeOnly = isContainer(actual)
+                && (keywordComparator instanceof TypeKeywordComparator || keywordComparator instanceof RegexKeywordComparator);
+        keywordComparator.compare(prefix, toJsonValue(expected), typeOnly ? describe(actual) : toJsonValue(actual),
+                new JsonCompareResultWrapper(comparator, result));
+    }
+
+    private JsonKeywordComparator findKeywordComparator(JsonNode expected) {
+        if (expected.isTextual()) {
+            return keywordComparators.find(expected.textValue());
+        }
+        return keywordComparators.hasGenericComparators() ? keywordComparators.find(toJsonValue(expected)) : null;
+    }
+
+    /**
+     * See {@link org.skyscreamer.jsonassert.comparator.DefaultComparator#compareValues}
+     */
+    private void compareByDefault(String prefix, JsonNode expected, JsonNode actual, JSONCompareResult result) {
+        if (expected.isNumber() && actual.isNumber()) {
+            if (expected.doubleValue() != actual.doubleValue()) {
+                result.fail(prefix, toJsonValue(expected), toJsonValue(actual));
+            }
+        } else if (expected.isObject() && actual.isObject()) {
+            compareObject(prefix, expected, actual, result);
+        } else if (expected.isArray() && actual.isArray()) {
+            compareArray(prefix, expected, actual, result);
+        } else if (isContainer(expected) || isContainer(actual) || !Objects.equals(toJsonValue(expected), toJsonValue(actual))) {
+            result.fail(prefix, describe(expected), describe(actual));
+        }
+    }
+
+    /**
+     * See {@link org.skyscreamer.jsonassert.comparator.DefaultComparator#compareJSON}, keys are checked in the sorted order
+     */
+    private void compareObject(String prefix, JsonNode expected, JsonNode actual, JSONCompareResult result) {
+        for (String key : sortedFieldNames(expected)) {
+            JsonNode actualValue = actual.get(key);
+            if (actualValue != null) {
+                compareValues(qualify(prefix, key), expected.get(key), actualValue, result);
+            } else {
+                result.missing(prefix, key);
+            }
+        }
+        if (!comparator.getMode().isExtensible()) {
+            for (String key : sortedFieldNames(actual)) {
+                if (!expected.has(key)) {
+                    result.unexpected(prefix, key);
+                }
+            }
+        }
+    }
+
+    private static List<String> sortedFieldNames(JsonNode node) {
+        if (node.size() == 0) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(node.size());
+        node.fieldNames().forEachRemaining(names::add);
+        Collections.sort(names);
+        return names;
+    }
+
+    private static String qualify(String prefix, String key) {
+        return prefix.isEmpty() ? key : prefix + "." + key;
+    }
+
+    /**
+     * See {@link JsonKeywordsComparator#compareJSONArray}
+     */
+    private void compareArray(String prefix, JsonNode expected, JsonNode actual, JSONCompareResult result) {
+        if (comparator.isArrayLengthValidated(prefix) && expected.size() != actual.size()) {
+            result.fail(String.format("%s[]%nArrays length differs. Expected length=%d but actual length=%d%n", prefix,
+                    expected.size(), actual.size()));
+            return;
+        }
+
+        UnmatchedArrayItems<JsonNode> remaining = new UnmatchedArrayItems<>(actual.size(), actual::get, (item, key) -> {
+            JsonNode value = item.get(key);
+            return value == null || isContainer(value) ? null : toJsonValue(value);
+        });
+        boolean parallel = parallelism > 1 && expected.size() >= MIN_PARALLEL_ARRAY_SIZE;
+        // equal actual items found in parallel for the expected items of the current chunk
+        List<List<Integer>> chunkMatches = List.of();
+        int chunkStart = 0;
+        for (int i = 0; i < expected.size(); ++i) {
+            if (!expected.get(i).isObject()) {
+                compareArrayOfSimpleValues(prefix, expected, actual, result);
+                break;
+            }
+            JsonNode expectedValue = expected.get(i);
+            String itemPrefix = prefix + "[" + i + "]";
+            if (remaining.isEmpty()) {
+                result.fail(String.format("%s%nExpected array item '%s' is missed in actual array%n", itemPrefix, toJsonValue(expectedValue)));
+                continue;
+            }
+
+            int actValueIndex;
+            if (parallel) {
+                if (i - chunkStart >= chunkMatches.size()) {
+                    chunkStart = i;
+                    chunkMatches = findEqualInParallel(prefix, expected, i, Math.min(expected.size(), i + parallelism * CHUNK_SIZE_PER_THREAD), remaining);
+                }
+                actValueIndex = firstRemaining(chunkMatches.get(i - chunkStart), remaining);
+            } else {
+                List<Integer> equal = findEqual(itemPrefix, expectedValue, candidates(expectedValue, remaining), remaining, 1);
+                actValueIndex = equal.isEmpty() ? -1 : equal.get(0);
+            }
+            if (actValueIndex < 0) {
+                actValueIndex = findMostlySimilar(itemPrefix, expectedValue, remaining);
+                JSONCompareResult tmpResult = new JSONCompareResult();
+                compareByDefault(itemPrefix, expectedValue, remaining.get(actValueIndex), tmpResult);
+                result.fail(tmpResult.getMessage());
+            }
+            remaining.remove(actValueIndex);
+        }
+    }
+
+    private Iterable<Integer> candidates(JsonNode expectedValue, UnmatchedArrayItems<JsonNode> remaining) {
+        return findKeywordComparator(expectedValue) != null
+                ? remaining.indexes()
+                : remaining.candidates(literalFields(expectedValue));
+    }
+
+    /**
+     * @param limit maximum number of the equal items to find
+     * @return indexes of the candidates that are equal to the expected item, in the original order
+     */
+    private List<Integer> findEqual(String prefix, JsonNode expectedValue, Iterable<Integer> candidates,
+            UnmatchedArrayItems<JsonNode> remaining, int limit) {
+        List<Integer> equal = new ArrayList<>(1);
+        for (int j : candidates) {
+            JSONCompareResult tmpResult = new JSONCompareResult();
+            compareValues(prefix, expectedValue, remaining.get(j), tmpResult);
+            if (tmpResult.passed()) {
+                equal.add(j);
+                if (equal.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return equal;
+    }
+
+    /**
+     * Searches equal items for the expected items from {@code from} (inclusive) to {@code to} (exclusive). Preceding
+     * items of the chunk can take at most one actual item each, so the n-th item of the chunk needs at most n equal
+     * items to get the same match as in sequential comparison
+     *
+     * @return equal items for each expected item of the chunk, empty list if there are no equal items
+     */
+    private List<List<Integer>> findEqualInParallel(String prefix, JsonNode expected, int from, int to,
+            UnmatchedArrayItems<JsonNode> remaining) {
+        List<ForkJoinTask<List<Integer>>> tasks = new ArrayList<>(to - from);
+        for (int i = from; i < to && expected.get(i).isObject(); i++) {
+            JsonNode expectedValue = expected.get(i);
+            String itemPrefix = prefix + "[" + i + "]";
+            // candidates are taken on the current thread as remaining items are not thread-safe
+            List<Integer> candidates = new ArrayList<>();
+            candidates(expectedValue, remaining).forEach(candidates::add);
+            int limit = i - from + 1;
+            tasks.add(ForkJoinTask.adapt(() -> findEqual(itemPrefix, expectedValue, candidates, remaining, limit)));
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        if (ForkJoinTask.getPool() == pool) {
+            // nested array of the item that is compared in parallel
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+        List<List<Integer>> matches = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<List<Integer>> task : tasks) {
+            matches.add(task.join());
+        }
+        return matches;
+    }
+
+    private static int firstRemaining(List<Integer> indexes, UnmatchedArrayItems<JsonNode> remaining) {
+        for (int index : indexes) {
+            if (!remaining.isRemoved(index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int findMostlySimilar(String prefix, JsonNode expectedValue, UnmatchedArrayItems<JsonNode> remaining) {
+        int actValueMostlySimilarIndex = -1;
+        int minErrorsCount = Integer.MAX_VALUE;
+        for (int j : remaining.indexes()) {
+            JSONCompareResult tmpResult = new JSONCompareResult();
+            compareValues(prefix, expectedValue, remaining.get(j), tmpResult);
+            if (actValueMostlySimilarIndex < 0 || tmpResult.getFieldFailures().size() < minErrorsCount) {
+                minErrorsCount = tmpResult.getFieldFailures().size();
+                actValueMostlySimilarIndex = j;
+            }
+        }
+        return actValueMostlySimilarIndex;
+    }
+
+    private Map<String, Object> literalFields(JsonNode expectedValue) {
+        Map<String, Object> fields = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> iterator = expectedValue.fields(); iterator.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = iterator.next();
+            if (!isContainer(field.getValue()) && findKeywordComparator(field.getValue()) == null) {
+                Object value = toJsonValue(field.getValue());
+                if (UnmatchedArrayItems.isLiteral(value)) {
+                    fields.put(field.getKey(), UnmatchedArrayItems.normalize(value));
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * See {@link JsonKeywordsComparator#compareJSONArray}, items are compared by equality
+     */
+    private static void compareArrayOfSimpleValues(String prefix, JsonNode expected, JsonNode actual, JSONCompareResult result) {
+        if (expected.size() == 1 && JsonCompareKeywords.SKIP.getKey().equals(expected.get(0).asText())) {
+            return;
+        }
+        List<Object> actualValues = new ArrayList<>(actual.size());
+        for (JsonNode item : actual) {
+            // org.json objects and arrays are equal only to themselves
+            actualValues.add(isContainer(item) ? null : toJsonValue(item));
+        }
+        for (JsonNode item : expected) {
+            Object expectedValue = toJsonValue(item);
+            if (isContainer(item) || !actualValues.contains(expectedValue)) {
+                result.fail(String.format("%s%nExpected array item '%s' is missed in actual array%n", prefix, expectedValue));
+            }
+        }
+    }
+}
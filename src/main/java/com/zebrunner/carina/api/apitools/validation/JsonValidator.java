@@ -15,6 +15,7 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.validation;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jackson.JsonLoader;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
@@ -28,19 +29,31 @@ import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONTokener;
-import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompare;
 import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Compiled json schemas are cached by the schema text for all validations, the cache is cleared when it reaches
+ * {@value #MAX_CACHE_SIZE} schemas
+ */
 public class JsonValidator {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+	private static final Pattern SCHEMA_VERSION_PATTERN = Pattern.compile("\\d+", Pattern.MULTILINE);
+	private static final int MAX_CACHE_SIZE = 100;
+	private static final Map<String, Boolean> SCHEMA_VERSIONS = new ConcurrentHashMap<>();
+	private static final Map<String, JsonSchema> SCHEMAS_V3V4 = new ConcurrentHashMap<>();
+	private static final Map<String, Schema> SCHEMAS_V6V7 = new ConcurrentHashMap<>();
 
 	private JsonValidator() {
 		//hide
@@ -52,52 +65,118 @@ public class JsonValidator {
 
 	public static void validateJson(String expectedJson, String actualJson, JSONCompareMode jsonCompareMode, JsonComparatorContext comparatorContext) {
 		try {
-			JSONAssert.assertEquals(expectedJson, actualJson, new JsonKeywordsComparator(actualJson, jsonCompareMode, comparatorContext));
+			validateJson(expectedJson, readTree(actualJson), actualJson, jsonCompareMode, comparatorContext);
 		} catch (JSONException e) {
 			throw new AssertionError(e);
 		}
 	}
 
+	/**
+	 * Validates json that is already parsed, so it is not parsed again for the comparison.
+	 * Failure messages are the same as for the comparison of json strings
+	 *
+	 * @param expectedJson      expected json, can contain keywords from {@link JsonCompareKeywords}
+	 * @param actualJson        actual json
+	 * @param jsonCompareMode   determines how to compare 2 JSONs
+	 * @param comparatorContext stores additional validation items provided from outside, can be null
+	 * @param validationFlags   used for JSON arrays validation, see {@link JsonCompareKeywords#ARRAY_CONTAINS}
+	 * @throws JSONException if the expected json can't be parsed
+	 */
+	public static void validateJson(String expectedJson, JsonNode actualJson, JSONCompareMode jsonCompareMode,
+			JsonComparatorContext comparatorContext, String... validationFlags) {
+		validateJson(expectedJson, actualJson, null, jsonCompareMode, comparatorContext, validationFlags);
+	}
+
+	private static void validateJson(String expectedJson, JsonNode actualJson, String actualStr, JSONCompareMode jsonCompareMode,
+			JsonComparatorContext comparatorContext, String... validationFlags) {
+		JsonKeywordsComparator comparator = new JsonKeywordsComparator(actualStr, jsonCompareMode, comparatorContext, validationFlags);
+		JsonNode expected = readTree(expectedJson);
+		JSONCompareResult result;
+		if (expected != null && actualJson != null && expected.isContainerNode() && actualJson.isContainerNode()) {
+			result = new JsonTreeComparator(comparator).compare(expected, actualJson);
+		} else {
+			// org.json parser is more lenient than jackson one, so templates that jackson can't read are compared as before
+			result = JSONCompare.compareJSON(expectedJson, actualStr != null ? actualStr : String.valueOf(actualJson), comparator);
+		}
+		if (result.failed()) {
+			throw new AssertionError(result.getMessage());
+		}
+	}
+
+	private static JsonNode readTree(String json) {
+		if (json == null) {
+			return null;
+		}
+		try {
+			return JsonTreeComparator.OBJECT_MAPPER.readTree(json);
+		} catch (JsonProcessingException e) {
+			return null;
+		}
+	}
+
 	public static void validateJsonAgainstSchema(String jsonSchema, String jsonData) {
-		Matcher m = Pattern.compile("\\d+", Pattern.MULTILINE).matcher(jsonSchema);
-		if (m.find()) {
-			int schemaVersion = Integer.parseInt(m.group());
-			if (schemaVersion <= 4) {
-				LOGGER.info("JSON schema of version below or equal to draft-04 was detected");
-				validateJsonAgainstSchemaV3V4(jsonSchema, jsonData);
+		if (isSchemaV3V4(jsonSchema)) {
+			validateJsonAgainstSchemaV3V4(jsonSchema, jsonData);
+		} else {
+			validateJsonAgainstSchemaV6V7(jsonSchema, jsonData);
+		}
+	}
+
+	/**
+	 * Draft version is detected once for each schema
+	 */
+	private static boolean isSchemaV3V4(String jsonSchema) {
+		Boolean schemaV3V4 = SCHEMA_VERSIONS.get(jsonSchema);
+		if (schemaV3V4 == null) {
+			Matcher m = SCHEMA_VERSION_PATTERN.matcher(jsonSchema);
+			if (m.find()) {
+				int schemaVersion = Integer.parseInt(m.group());
+				schemaV3V4 = schemaVersion <= 4;
+				if (schemaV3V4) {
+					LOGGER.info("JSON schema of version below or equal to draft-04 was detected");
+				} else {
+					LOGGER.info("JSON schema of version higher than draft-04 was detected");
+				}
 			} else {
-				LOGGER.info("JSON schema of version higher than draft-04 was detected");
-				validateJsonAgainstSchemaV6V7(jsonSchema, jsonData);
+				LOGGER.warn("JSON schema version can not be detected");
+				schemaV3V4 = true;
 			}
-		} else {
-			LOGGER.warn("JSON schema version can not be detected");
-			validateJsonAgainstSchemaV3V4(jsonSchema, jsonData);
+			cache(SCHEMA_VERSIONS, jsonSchema, schemaV3V4);
 		}
+		return schemaV3V4;
+	}
+
+	private static <T> void cache(Map<String, T> cache, String jsonSchema, T value) {
+		if (cache.size() >= MAX_CACHE_SIZE) {
+			cache.clear();
+		}
+		cache.put(jsonSchema, value);
 	}
 
 	public static void validateJsonAgainstSchemaV3V4(String jsonSchema, String jsonData) {
-		// create the Json nodes for schema and data
-		JsonNode schemaNode;
-		JsonNode data;
-		try {
-			schemaNode = JsonLoader.fromString(jsonSchema);
-		} catch (IOException e) {
-			throw new UncheckedIOException("Can't read schema from String: " + e.getMessage(), e);
+		// load the schema once and validate
+		JsonSchema schema = SCHEMAS_V3V4.get(jsonSchema);
+		if (schema == null) {
+			JsonNode schemaNode;
+			try {
+				schemaNode = JsonLoader.fromString(jsonSchema);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Can't read schema from String: " + e.getMessage(), e);
+			}
+			try {
+				schema = SchemaFactoryHolder.FACTORY.getJsonSchema(schemaNode);
+			} catch (ProcessingException e) {
+				throw new RuntimeException("Can't process shema", e);
+			}
+			cache(SCHEMAS_V3V4, jsonSchema, schema);
 		}
+		JsonNode data;
 		try {
 			data = JsonLoader.fromString(jsonData);
 		} catch (IOException e) {
 			throw new UncheckedIOException("Can't read json from String: " + e.getMessage(), e);
 		}
 
-		JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
-		// load the schema and validate
-		JsonSchema schema;
-		try {
-			schema = factory.getJsonSchema(schemaNode);
-		} catch (ProcessingException e) {
-			throw new RuntimeException("Can't process shema", e);
-		}
 		ProcessingReport report;
 		try {
 			report = schema.validate(data, true);
@@ -123,11 +202,16 @@ public class JsonValidator {
 	}
 
 	public static void validateJsonAgainstSchemaV6V7(String jsonSchema, String jsonData) {
-		JSONObject rawSchema;
-		try {
-			rawSchema = new JSONObject(new JSONTokener(jsonSchema));
-		} catch (JSONException e) {
-			throw new JSONException("Can't parse json schema from file: " + e.getMessage(), e);
+		Schema schema = SCHEMAS_V6V7.get(jsonSchema);
+		if (schema == null) {
+			JSONObject rawSchema;
+			try {
+				rawSchema = new JSONObject(new JSONTokener(jsonSchema));
+			} catch (JSONException e) {
+				throw new JSONException("Can't parse json schema from file: " + e.getMessage(), e);
+			}
+			schema = SchemaLoader.load(rawSchema);
+			cache(SCHEMAS_V6V7, jsonSchema, schema);
 		}
 
 		JSONObject data;
@@ -137,7 +221,6 @@ public class JsonValidator {
 			throw new JSONException("Can't parse json data schema from file: " + e.getMessage(), e);
 		}
 
-		Schema schema = SchemaLoader.load(rawSchema);
 		StringBuilder result = new StringBuilder("Validation against Json schema failed: \n");
 		try {
 			schema.validate(data);
@@ -149,4 +232,13 @@ public class JsonValidator {
 			throw new AssertionError(result.toString());
 		}
 	}
+
+	private static final class SchemaFactoryHolder {
+
+		private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.byDefault();
+
+		private SchemaFactoryHolder() {
+			// hide
+		}
+	}
 }
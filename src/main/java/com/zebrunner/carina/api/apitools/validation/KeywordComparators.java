@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the first comparator that matches the expected value. Comparators with {@link JsonKeywordComparator#getKeyword()}
+ * are stored in a prefix tree, so a string value is checked only by comparators whose keyword it starts with
+ */
+final class KeywordComparators {
+
+    private final Node root = new Node();
+    // comparators without keyword with their positions
+    private final List<JsonKeywordComparator> genericComparators = new ArrayList<>();
+    private final List<Integer> genericPositions = new ArrayList<>();
+
+    KeywordComparators(List<JsonKeywordComparator> comparators) {
+        for (int i = 0; i < comparators.size(); i++) {
+            JsonKeywordComparator comparator = comparators.get(i);
+            String keyword = comparator.getKeyword();
+            if (keyword == null || keyword.isEmpty()) {
+                genericComparators.add(comparator);
+                genericPositions.add(i);
+                continue;
+            }
+            Node node = root;
+            for (int c = 0; c < keyword.length(); c++) {
+                node = node.children.computeIfAbsent(keyword.charAt(c), ch -> new Node());
+            }
+            node.comparators.add(comparator);
+            node.positions.add(i);
+        }
+    }
+
+    /**
+     * Creates new instances of the comparators registered through {@link ServiceLoader}. Providers are looked up once,
+     * so the classpath is not scanned for each validation
+     *
+     * @return comparator instances
+     */
+    static List<JsonKeywordComparator> loadServiceComparators() {
+        return ProvidersHolder.PROVIDERS.stream()
+                .map(ServiceLoader.Provider::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param expectedValue expected value
+     * @return the first (in the order of registration) comparator that matches the value or null
+     */
+    JsonKeywordComparator find(Object expectedValue) {
+        JsonKeywordComparator found = null;
+        int foundPosition = Integer.MAX_VALUE;
+        if (expectedValue instanceof String) {
+            String value = (String) expectedValue;
+            Node node = root;
+            for (int c = 0; c < value.length() && node != null; c++) {
+                node = node.children.get(value.charAt(c));
+                if (node != null) {
+                    for (int i = 0; i < node.comparators.size() && node.positions.get(i) < foundPosition; i++) {
+                        if (node.comparators.get(i).isMatch(expectedValue)) {
+                            found = node.comparators.get(i);
+                            foundPosition = node.positions.get(i);
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < genericComparators.size() && genericPositions.get(i) < foundPosition; i++) {
+            if (genericComparators.get(i).isMatch(expectedValue)) {
+                return genericComparators.get(i);
+            }
+        }
+        return found;
+    }
+
+    boolean hasGenericComparators() {
+        return !genericComparators.isEmpty();
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<JsonKeywordComparator> comparators = new ArrayList<>(1);
+        private final List<Integer> positions = new ArrayList<>(1);
+    }
+
+    private static final class ProvidersHolder {
+
+        private static final List<ServiceLoader.Provider<JsonKeywordComparator>> PROVIDERS = ServiceLoader.load(JsonKeywordComparator.class)
+                .stream()
+                .collect(Collectors.toUnmodifiableList());
+
+        private ProvidersHolder() {
+            // hide
+        }
+    }
+}
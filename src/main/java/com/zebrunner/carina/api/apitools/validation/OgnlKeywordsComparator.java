@@ -15,24 +15,48 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.validation;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.zebrunner.carina.utils.JsonUtils;
 import ognl.Ognl;
 import ognl.OgnlException;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * Parsed expressions are cached by expression text for all validations, the cache is cleared when it reaches
+ * {@value #MAX_CACHE_SIZE} expressions. Root object of the expressions is converted from the actual json that is already
+ * parsed for comparison
+ */
 final class OgnlKeywordsComparator implements JsonKeywordComparator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int MAX_CACHE_SIZE = 1_000;
+    private static final Map<String, Object> EXPRESSIONS = new ConcurrentHashMap<>();
 
     private final String actualStr;
-    private Object root;
+    private final Supplier<Object> parsedActual;
+    // can be created by several threads in parallel comparison, the result is the same
+    private volatile Object root;
 
     public OgnlKeywordsComparator(String actualStr) {
+        this(actualStr, () -> null);
+    }
+
+    /**
+     * @param actualStr    actual json
+     * @param parsedActual actual json parsed to {@link JSONObject}, {@link JSONArray} or {@link JsonNode}, null if it is
+     *                     not parsed yet
+     */
+    OgnlKeywordsComparator(String actualStr, Supplier<Object> parsedActual) {
         this.actualStr = actualStr;
+        this.parsedActual = parsedActual;
     }
 
     @Override
@@ -57,17 +81,48 @@ final class OgnlKeywordsComparator implements JsonKeywordComparator {
         Object result = null;
         try {
             if (this.root == null) {
-                this.root = JsonUtils.fromJson(actualStr, Object.class);
+                this.root = createRoot();
             }
-            result = Ognl.getValue(expression, Map.of("val", value), root);
+            result = Ognl.getValue(getExpression(expression), Map.of("val", value), root);
         } catch (OgnlException e) {
             LOGGER.error(e.getMessage(), e);
         }
         return result;
     }
 
+    private Object createRoot() {
+        Object parsed = parsedActual.get();
+        if (parsed instanceof JSONObject) {
+            return ((JSONObject) parsed).toMap();
+        }
+        if (parsed instanceof JSONArray) {
+            return ((JSONArray) parsed).toList();
+        }
+        if (parsed instanceof JsonNode) {
+            return JsonTreeComparator.OBJECT_MAPPER.convertValue(parsed, Object.class);
+        }
+        return JsonUtils.fromJson(actualStr, Object.class);
+    }
+
+    private static Object getExpression(String expression) throws OgnlException {
+        Object tree = EXPRESSIONS.get(expression);
+        if (tree == null) {
+            tree = Ognl.parseExpression(expression);
+            if (EXPRESSIONS.size() >= MAX_CACHE_SIZE) {
+                EXPRESSIONS.clear();
+            }
+            EXPRESSIONS.put(expression, tree);
+        }
+        return tree;
+    }
+
     @Override
     public boolean isMatch(Object expectedValue) {
         return expectedValue.toString().startsWith(JsonCompareKeywords.OGNL.getKey());
     }
+
+    @Override
+    public String getKeyword() {
+        return JsonCompareKeywords.OGNL.getKey();
+    }
 }
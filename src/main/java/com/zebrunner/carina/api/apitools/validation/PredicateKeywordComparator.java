@@ -53,4 +53,9 @@ final class PredicateKeywordComparator implements JsonKeywordComparator {
     public boolean isMatch(Object expectedValue) {
         return expectedValue.toString().startsWith(JsonCompareKeywords.PREDICATE.getKey());
     }
+
+    @Override
+    public String getKeyword() {
+        return JsonCompareKeywords.PREDICATE.getKey();
+    }
 }
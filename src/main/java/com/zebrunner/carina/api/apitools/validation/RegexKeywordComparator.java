@@ -15,17 +15,25 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.apitools.validation;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Compiled patterns are cached by regex for all validations, the cache is cleared when it reaches {@value #MAX_CACHE_SIZE} patterns
+ */
 final class RegexKeywordComparator implements JsonKeywordComparator {
 
+    private static final int MAX_CACHE_SIZE = 1_000;
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
     @Override
     public void compare(String prefix, Object expectedValue, Object actualValue, JsonCompareResultWrapper result) {
         if (actualValue instanceof Number || actualValue instanceof String) {
             String actualStr = actualValue.toString();
             String regex = expectedValue.toString().replace(JsonCompareKeywords.REGEX.getKey(), "");
-            Matcher m = Pattern.compile(regex).matcher(actualStr);
+            Matcher m = compile(regex).matcher(actualStr);
             if (!m.find()) {
                 result.fail(String.format("%s%nActual value '%s' doesn't match to expected regex '%s'%n", prefix, actualStr, regex));
             }
@@ -34,8 +42,25 @@ final class RegexKeywordComparator implements JsonKeywordComparator {
         }
     }
 
+    private static Pattern compile(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            if (PATTERNS.size() >= MAX_CACHE_SIZE) {
+                PATTERNS.clear();
+            }
+            PATTERNS.put(regex, pattern);
+        }
+        return pattern;
+    }
+
     @Override
     public boolean isMatch(Object expectedValue) {
         return expectedValue.toString().startsWith(JsonCompareKeywords.REGEX.getKey());
     }
+
+    @Override
+    public String getKeyword() {
+        return JsonCompareKeywords.REGEX.getKey();
+    }
 }
@@ -26,4 +26,9 @@ final class SkipKeywordComparator implements JsonKeywordComparator {
     public boolean isMatch(Object expectedValue) {
         return JsonCompareKeywords.SKIP.getKey().equals(expectedValue.toString());
     }
+
+    @Override
+    public String getKeyword() {
+        return JsonCompareKeywords.SKIP.getKey();
+    }
 }
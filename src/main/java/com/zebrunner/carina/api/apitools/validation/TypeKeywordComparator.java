@@ -30,4 +30,9 @@ final class TypeKeywordComparator implements JsonKeywordComparator {
     public boolean isMatch(Object expectedValue) {
         return expectedValue.toString().startsWith(JsonCompareKeywords.TYPE.getKey());
     }
+
+    @Override
+    public String getKeyword() {
+        return JsonCompareKeywords.TYPE.getKey();
+    }
 }
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.validation;
+
+import org.json.JSONObject;
+import org.skyscreamer.jsonassert.comparator.DefaultComparator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+/**
+ * Actual array items that are not matched yet. Items are indexed lazily by the values of the literal fields,
+ * an index is built once for each set of field names
+ *
+ * @param <E> type of the array items
+ */
+final class UnmatchedArrayItems<E> {
+
+    private static final Object NULL_VALUE = new Object();
+
+    private final IntFunction<E> items;
+    private final BiFunction<E, String, Object> fields;
+    private final boolean[] removed;
+    private final Map<List<String>, Map<List<Object>, Set<Integer>>> indexes = new HashMap<>();
+    private int size;
+
+    /**
+     * @param size   number of the items
+     * @param items  returns item by index
+     * @param fields returns value of the item field in terms of org.json ({@link String}, {@link Number}, {@link Boolean},
+     *               {@link JSONObject#NULL} etc.) or null if the field is missed
+     */
+    UnmatchedArrayItems(int size, IntFunction<E> items, BiFunction<E, String, Object> fields) {
+        this.items = items;
+        this.fields = fields;
+        this.removed = new boolean[size];
+        this.size = size;
+    }
+
+    static boolean isLiteral(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean || JSONObject.NULL.equals(value);
+    }
+
+    /**
+     * Numbers are compared as doubles, see {@link DefaultComparator#compareValues}
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            return number == 0 ? 0.0d : number;
+        }
+        return JSONObject.NULL.equals(value) ? NULL_VALUE : value;
+    }
+
+    E get(int index) {
+        return items.apply(index);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean isRemoved(int index) {
+        return removed[index];
+    }
+
+    void remove(int index) {
+        removed[index] = true;
+        size--;
+    }
+
+    /**
+     * @return indexes of the remaining items in the original order
+     */
+    Iterable<Integer> indexes() {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < removed.length; i++) {
+            if (!removed[i]) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @param literalFields normalized values of the expected fields compared by equality, sorted by name
+     * @return indexes of the remaining items that have the same literal fields, in the original order
+     */
+    Iterable<Integer> candidates(Map<String, Object> literalFields) {
+        List<String> keys = List.copyOf(literalFields.keySet());
+        Map<List<Object>, Set<Integer>> index = indexes.get(keys);
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = 0; i < removed.length; i++) {
+                List<Object> fingerprint = removed[i] ? null : fingerprint(get(i), keys);
+                if (fingerprint != null) {
+                    index.computeIfAbsent(fingerprint, f -> new LinkedHashSet<>()).add(i);
+                }
+            }
+            indexes.put(keys, index);
+        }
+        Set<Integer> bucket = index.get(new ArrayList<>(literalFields.values()));
+        if (bucket == null) {
+            return List.of();
+        }
+        // matched items are removed from the bucket lazily
+        bucket.removeIf(i -> removed[i]);
+        return bucket;
+    }
+
+    /**
+     * @return normalized values of the fields or null if some field is missed or is not literal
+     */
+    private List<Object> fingerprint(E item, List<String> keys) {
+        List<Object> fingerprint = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object value = fields.apply(item, key);
+            if (value == null || !isLiteral(value)) {
+                return null;
+            }
+            fingerprint.add(normalize(value));
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.binding;
+
+import com.zebrunner.carina.api.apitools.annotation.AnnotationProcessorUtils;
+import com.zebrunner.carina.api.apitools.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed binding of the endpoint template method parameters to annotations.<br>
+ * A plan is created once per template method by {@link TemplateInvocationHandler} and passed to every {@link RuntimeMethod}
+ * of that method, so annotated parameters are found once per annotation class and only argument values are taken on every call
+ */
+public final class MethodBindingPlan {
+
+    private final Parameter[] parameters;
+    private final Map<Class<? extends Annotation>, List<ParameterBinding<?>>> bindings = new ConcurrentHashMap<>();
+
+    public MethodBindingPlan(Method method) {
+        this.parameters = method.getParameters();
+    }
+
+    /**
+     * Returns bindings of the parameters annotated by the annotation in the parameters order
+     *
+     * @param annClass annotation class
+     * @param <A>      type of the annotation
+     * @return list of the bindings
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> List<ParameterBinding<A>> getBindings(Class<A> annClass) {
+        List<?> result = bindings.computeIfAbsent(annClass, this::findBindings);
+        return (List<ParameterBinding<A>>) result;
+    }
+
+    private List<ParameterBinding<?>> findBindings(Class<? extends Annotation> annClass) {
+        List<ParameterBinding<?>> result = new ArrayList<>();
+        for (int index = 0; index < parameters.length; index++) {
+            if (AnnotationUtils.isAnnotatedPresent(parameters[index], annClass)) {
+                result.add(new ParameterBinding<>(index, AnnotationProcessorUtils.getAnnotation(parameters[index], annClass).orElse(null)));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public static final class ParameterBinding<A extends Annotation> {
+
+        private final int index;
+        private final A annotation;
+
+        private ParameterBinding(int index, A annotation) {
+            this.index = index;
+            this.annotation = annotation;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public A getAnnotation() {
+            return annotation;
+        }
+
+        public Object getValue(Object[] args) {
+            return args[index];
+        }
+    }
+}
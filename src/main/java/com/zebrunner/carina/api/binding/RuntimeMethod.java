@@ -25,11 +25,17 @@ public class RuntimeMethod implements AnnotatedElement, Member {
     private final Object object;
     private final Method method;
     private final Object[] args;
+    private final MethodBindingPlan bindingPlan;
 
     public RuntimeMethod(Object object, Method method, Object[] args) {
+        this(object, method, args, new MethodBindingPlan(method));
+    }
+
+    public RuntimeMethod(Object object, Method method, Object[] args, MethodBindingPlan bindingPlan) {
         this.object = object;
         this.method = method;
         this.args = args;
+        this.bindingPlan = bindingPlan;
     }
 
     @Override
@@ -59,6 +65,10 @@ public class RuntimeMethod implements AnnotatedElement, Member {
         return args;
     }
 
+    public MethodBindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
     @Override
     public Class<?> getDeclaringClass() {
         return method.getDeclaringClass();
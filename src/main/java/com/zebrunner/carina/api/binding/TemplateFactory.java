@@ -15,13 +15,27 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.binding;
 
+import com.zebrunner.carina.api.resolver.GeneratedMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Creates implementations of the endpoint template interfaces.<br>
+ * If carina-api-processor generated an implementation for the interface at compile time
+ * (class {@code <InterfaceName>_ApiTemplate} in the same package), it is used, otherwise a dynamic proxy
+ * with {@link TemplateInvocationHandler} is created
+ */
 public class TemplateFactory {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    static final String TEMPLATE_CLASS_SUFFIX = "_ApiTemplate";
+
     private static final Map<Class<?>, Object> templates = new ConcurrentHashMap<>();
 
     private TemplateFactory() {
@@ -33,7 +47,31 @@ public class TemplateFactory {
         if (!isClassValid(mClass)) {
             throw new RuntimeException(String.format("Unable to prepare class %s which is not an interface", mClass.getName()));
         }
-        return (M) templates.computeIfAbsent(mClass, TemplateFactory::proxyTemplate);
+        return (M) templates.computeIfAbsent(mClass, TemplateFactory::createTemplate);
+    }
+
+    private static Object createTemplate(Class<?> mClass) {
+        Object template = generatedTemplate(mClass);
+        return template != null ? template : proxyTemplate(mClass);
+    }
+
+    private static Object generatedTemplate(Class<?> mClass) {
+        if (mClass.getClassLoader() == null) {
+            return null;
+        }
+        String generatedClassName = GeneratedMetadata.getGeneratedClassName(mClass, TEMPLATE_CLASS_SUFFIX);
+        try {
+            Class<?> generatedClass = Class.forName(generatedClassName, true, mClass.getClassLoader());
+            if (!mClass.isAssignableFrom(generatedClass)) {
+                return null;
+            }
+            return generatedClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.warn("Unable to create generated implementation of {}, proxy will be used: {}", mClass.getName(), e.getMessage());
+            return null;
+        }
     }
 
     private static boolean isClassValid(Class<?> mClass) {
@@ -21,16 +21,30 @@ import com.zebrunner.carina.api.MethodBasedApiMethod;
 import com.zebrunner.carina.api.annotation.EndpointTemplateMethod;
 import com.zebrunner.carina.api.apitools.annotation.AnnotationUtils;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Creates API methods for the endpoint template interface methods.<br>
+ * The way of the method invocation is resolved on the first call and cached per method: template methods call
+ * the bound constructor handle of the returned API method with the parameter binding plan of the method,
+ * other methods call the special handle of the interface method
+ */
 public class TemplateInvocationHandler implements InvocationHandler {
 
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, AnnotatedElement.class);
+    private static final MethodType SPECIAL_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
     private final Class<?> originalClass;
+    private final Map<Method, MethodInvoker> invokers = new ConcurrentHashMap<>();
 
     public TemplateInvocationHandler(Class<?> originalClass) {
         this.originalClass = originalClass;
@@ -38,22 +52,28 @@ public class TemplateInvocationHandler implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        return buildMethod(proxy, method, args);
+        MethodInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            invoker = prepareInvoker(method);
+            invokers.putIfAbsent(method, invoker);
+        }
+        return invoker.invoke(proxy, method, args == null ? NO_ARGS : args);
     }
 
-    private Object buildMethod(Object proxy, Method method, Object[] args) {
-        Object result;
-        if (isMethodValid(method)) {
-            if (!(AbstractApiMethod.class.isAssignableFrom(method.getReturnType()))) {
+    private MethodInvoker prepareInvoker(Method method) {
+        if (!isMethodValid(method)) {
+            MethodHandle special = findSpecial(originalClass, method);
+            return (proxy, m, args) -> invokeNotSuitableMethod(special, proxy, args);
+        }
+        if (!(AbstractApiMethod.class.isAssignableFrom(method.getReturnType()))) {
+            return (proxy, m, args) -> {
                 throw new ClassCastException(
-                        String.format("Method %s should return instance of %s class", method.getName(), AbstractApiMethod.class.getName()));
-            }
-            AnnotatedElement anchorElement = new RuntimeMethod(proxy, method, args);
-            result = createAnchorElementBasedInstance(method.getReturnType(), anchorElement);
-        } else {
-            result = invokeNotSuitableMethod(originalClass, proxy, method, args);
+                        String.format("Method %s should return instance of %s class", m.getName(), AbstractApiMethod.class.getName()));
+            };
         }
-        return result;
+        MethodHandle constructor = findConstructor(method.getReturnType());
+        MethodBindingPlan bindingPlan = new MethodBindingPlan(method);
+        return (proxy, m, args) -> createAnchorElementBasedInstance(constructor, new RuntimeMethod(proxy, m, args, bindingPlan));
     }
 
     private static boolean isMethodValid(Method method) {
@@ -63,17 +83,20 @@ public class TemplateInvocationHandler implements InvocationHandler {
                 && AnnotationUtils.isAnnotatedPresent(method, EndpointTemplateMethod.class);
     }
 
-    private static Object createAnchorElementBasedInstance(Class<?> targetClass, AnnotatedElement anchorElement) {
+    private static MethodHandle findConstructor(Class<?> targetClass) {
         try {
-            return AbstractApiMethod.class.equals(targetClass) || AbstractApiMethodV2.class.equals(targetClass)
-                    ? new MethodBasedApiMethod(anchorElement)
-                    : targetClass.getDeclaredConstructor(AnnotatedElement.class).newInstance(anchorElement);
+            Class<?> instanceClass = AbstractApiMethod.class.equals(targetClass) || AbstractApiMethodV2.class.equals(targetClass)
+                    ? MethodBasedApiMethod.class
+                    : targetClass;
+            return MethodHandles.lookup()
+                    .unreflectConstructor(instanceClass.getDeclaredConstructor(AnnotatedElement.class))
+                    .asType(CONSTRUCTOR_TYPE);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
     }
 
-    private static Object invokeNotSuitableMethod(Class<?> originalClass, Object proxy, Method method, Object[] args) {
+    private static MethodHandle findSpecial(Class<?> originalClass, Method method) {
         try {
             return MethodHandles.lookup()
                     .findSpecial(
@@ -82,10 +105,32 @@ public class TemplateInvocationHandler implements InvocationHandler {
                             MethodType.methodType(method.getReturnType(), method.getParameterTypes()),
                             originalClass
                     )
-                    .bindTo(proxy)
-                    .invokeWithArguments(args);
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(SPECIAL_TYPE);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static Object createAnchorElementBasedInstance(MethodHandle constructor, AnnotatedElement anchorElement) {
+        try {
+            return (Object) constructor.invokeExact(anchorElement);
         } catch (Throwable e) {
             throw new RuntimeException(e.getMessage(), e);
         }
     }
+
+    private static Object invokeNotSuitableMethod(MethodHandle special, Object proxy, Object[] args) {
+        try {
+            return (Object) special.invokeExact(proxy, args);
+        } catch (Throwable e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MethodInvoker {
+
+        Object invoke(Object proxy, Method method, Object[] args);
+    }
 }
@@ -40,7 +40,67 @@ public final class APIConfiguration extends Configuration {
         /**
          * Boolean parameter which enables or disables the setup of a proxy. <b>Default: false</b>
          */
-        PROXY_SET_TO_SYSTEM("proxy_set_to_system");
+        PROXY_SET_TO_SYSTEM("proxy_set_to_system"),
+
+        /**
+         * Number of threads in the default pool used by asynchronous API calls. Calls sent by the jdk transport use
+         * a thread only to process the response, calls of the other transports hold a thread until the response is received.
+         * <b>Default: number of available processors multiplied by 2</b>
+         */
+        API_ASYNC_POOL_SIZE("api_async_pool_size"),
+
+        /**
+         * Boolean parameter which enables or disables the process-wide pool of keep-alive connections shared by all
+         * API methods. <b>Default: true</b>
+         */
+        API_CONNECTION_POOL_ENABLED("api_connection_pool_enabled"),
+
+        /**
+         * Maximum number of connections in the shared connection pool. <b>Default: 200</b>
+         */
+        API_CONNECTION_POOL_MAX_TOTAL("api_connection_pool_max_total"),
+
+        /**
+         * Maximum number of connections per route (scheme, host and port) in the shared connection pool. <b>Default: 20</b>
+         */
+        API_CONNECTION_POOL_MAX_PER_ROUTE("api_connection_pool_max_per_route"),
+
+        /**
+         * Time in seconds after which idle connections are evicted from the shared connection pool. <b>Default: 30</b>
+         */
+        API_CONNECTION_POOL_IDLE_TIMEOUT("api_connection_pool_idle_timeout"),
+
+        /**
+         * Time in milliseconds of inactivity after which a pooled connection is checked for staleness before reuse.
+         * Zero or negative value disables the check. <b>Default: 2000</b>
+         */
+        API_CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY("api_connection_pool_validate_after_inactivity"),
+
+        /**
+         * Name of the transport used to send API requests: {@code restassured}, {@code jdk} (HTTP/2 capable JDK http client)
+         * or the name of a custom transport registered through ServiceLoader. Custom transports are used only when they are
+         * named here. <b>Default: restassured</b>
+         */
+        API_TRANSPORT("api_transport"),
+
+        /**
+         * Boolean parameter which disables modification checks of request/response templates and keeps all loaded
+         * templates in memory. <b>Default: false</b>
+         */
+        API_TEMPLATES_PRODUCTION_MODE("api_templates_production_mode"),
+
+        /**
+         * Boolean parameter which enables precompilation of all templates listed in the classpath template index
+         * (generated by carina-api-processor) before the first template is rendered. <b>Default: false</b>
+         */
+        API_TEMPLATES_PRELOAD("api_templates_preload"),
+
+        /**
+         * Boolean parameter which enables streaming of the request templates: the template is rendered directly
+         * into the request entity instead of a String. Request body is not available by {@code getRequestBody()}
+         * and is not printed by the request logging in this mode. <b>Default: false</b>
+         */
+        API_REQUEST_TEMPLATE_STREAMING("api_request_template_streaming");
 
         private final String key;
 
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import com.zebrunner.carina.api.config.APIConfiguration;
+import com.zebrunner.carina.utils.config.Configuration;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide pool of keep-alive connections used by all API methods and RestUtil.<br>
+ * Pool is configured by {@link APIConfiguration.Parameter} connection pool parameters and can be disabled by
+ * {@link APIConfiguration.Parameter#API_CONNECTION_POOL_ENABLED}. If http client is configured globally through
+ * {@link RestAssured#config}, that configuration is used instead of the pool
+ */
+@SuppressWarnings("deprecation")
+public final class ConnectionPool {
+
+    private static final int DEFAULT_MAX_TOTAL = 200;
+    private static final int DEFAULT_MAX_PER_ROUTE = 20;
+    private static final int DEFAULT_IDLE_TIMEOUT = 30;
+    private static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private ConnectionPool() {
+        // hide
+    }
+
+    /**
+     * Returns global restassured configuration with the http client that leases connections from the shared pool
+     *
+     * @return see {@link RestAssuredConfig}
+     */
+    public static RestAssuredConfig config() {
+        RestAssuredConfig config = RestAssured.config();
+        if (!isEnabled() || config.getHttpClientConfig().isUserConfigured()) {
+            return config;
+        }
+        return config.httpClient(PoolHolder.HTTP_CLIENT_CONFIG);
+    }
+
+    /**
+     * Returns statistics of the shared pool: number of leased, pending and available connections and the maximum
+     * number of connections
+     *
+     * @return see {@link PoolStats}
+     */
+    public static PoolStats getTotalStats() {
+        return PoolHolder.POOL.getTotalStats();
+    }
+
+    public static boolean isEnabled() {
+        return Configuration.get(APIConfiguration.Parameter.API_CONNECTION_POOL_ENABLED, Boolean.class)
+                .orElse(true);
+    }
+
+    private static final class PoolHolder {
+
+        private static final PooledClientConnectionManager POOL;
+        private static final HttpClientConfig HTTP_CLIENT_CONFIG;
+
+        static {
+            POOL = new PooledClientConnectionManager(SchemeRegistryFactory.createDefault(),
+                    Configuration.get(APIConfiguration.Parameter.API_CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY, Integer.class)
+                            .orElse(DEFAULT_VALIDATE_AFTER_INACTIVITY));
+            POOL.setMaxTotal(Configuration.get(APIConfiguration.Parameter.API_CONNECTION_POOL_MAX_TOTAL, Integer.class)
+                    .orElse(DEFAULT_MAX_TOTAL));
+            POOL.setDefaultMaxPerRoute(Configuration.get(APIConfiguration.Parameter.API_CONNECTION_POOL_MAX_PER_ROUTE, Integer.class)
+                    .orElse(DEFAULT_MAX_PER_ROUTE));
+
+            int idleTimeout = Configuration.get(APIConfiguration.Parameter.API_CONNECTION_POOL_IDLE_TIMEOUT, Integer.class)
+                    .orElse(DEFAULT_IDLE_TIMEOUT);
+            ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "carina-api-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(() -> {
+                POOL.closeExpiredConnections();
+                POOL.closeIdleConnections(idleTimeout, TimeUnit.SECONDS);
+            }, idleTimeout, Math.max(1, idleTimeout / 2), TimeUnit.SECONDS);
+
+            HTTP_CLIENT_CONFIG = HttpClientConfig.httpClientConfig()
+                    .httpClientFactory(PooledHttpClient::new);
+        }
+
+        private PoolHolder() {
+            // hide
+        }
+    }
+
+    private static final class PooledHttpClient extends DefaultHttpClient {
+
+        @Override
+        protected ClientConnectionManager createClientConnectionManager() {
+            return new SharedClientConnectionManager(PoolHolder.POOL);
+        }
+    }
+}
@@ -15,10 +15,16 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.http;
 
-import com.zebrunner.carina.proxy.SystemProxy;
+import com.zebrunner.carina.api.config.APIConfiguration;
+import com.zebrunner.carina.utils.config.Configuration;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
 /*
  * HttpClient - sends HTTP request with specified parameters and returns response.
  *
@@ -27,35 +33,40 @@ import io.restassured.specification.RequestSpecification;
 public class HttpClient {
 
     public static Response send(RequestSpecification request, String methodPath, HttpMethodType methodType) {
-        Response response = null;
-        SystemProxy.setupProxy();
-        switch (methodType) {
-        case HEAD:
-            response = request.head(methodPath);
-            break;
-        case GET:
-            response = request.get(methodPath);
-            break;
-        case PUT:
-            response = request.put(methodPath);
-            break;
-        case POST:
-            response = request.post(methodPath);
-            break;
-        case DELETE:
-            response = request.delete(methodPath);
-            break;
-        case PATCH:
-            response = request.patch(methodPath);
-            break;
-        case OPTIONS:
-        		response = request.options(methodPath);
-        		break;
-        default:
-            throw new RuntimeException("MethodType is not specified for the API method: " + methodPath);
+        return TransportHolder.TRANSPORT.send(request, methodPath, methodType);
+    }
+
+    /**
+     * @return transport selected by the {@link APIConfiguration.Parameter#API_TRANSPORT} parameter
+     */
+    public static Transport getTransport() {
+        return TransportHolder.TRANSPORT;
+    }
+
+    private static Transport resolveTransport() {
+        Optional<String> transportName = Configuration.get(APIConfiguration.Parameter.API_TRANSPORT);
+        if (transportName.isEmpty()) {
+            return new RestAssuredTransport();
         }
+        List<Transport> transports = new ArrayList<>();
+        transports.add(new RestAssuredTransport());
+        transports.add(new JdkHttpTransport());
+        ServiceLoader.load(Transport.class)
+                .forEach(transports::add);
 
-        return response;
+        String name = transportName.get();
+        return transports.stream()
+                .filter(transport -> transport.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unable to find API transport with name: " + name));
     }
 
+    private static final class TransportHolder {
+
+        private static final Transport TRANSPORT = resolveTransport();
+
+        private TransportHolder() {
+            // hide
+        }
+    }
 }
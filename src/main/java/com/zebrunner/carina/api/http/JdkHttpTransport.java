@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Cookie;
+import io.restassured.http.Cookies;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpCookie;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Transport that sends requests by the JDK {@link java.net.http.HttpClient}. One client instance is shared by all
+ * requests, so HTTP/2 streams to the same host are multiplexed over a single connection.<br>
+ * The request is sent from the last restassured filter, so the request specification (headers, cookies, query params,
+ * body), logging filters and response expectations work the same way as for {@link RestAssuredTransport}.
+ * Requests with multipart data or custom SSL configuration are sent by restassured.<br>
+ * {@link #sendAsync} sends the request by {@link java.net.http.HttpClient#sendAsync}, so no thread waits for the
+ * response. The request is built before restassured filters are applied, the filters (logging, response expectations)
+ * are applied on the executor when the response is received
+ */
+public class JdkHttpTransport extends RestAssuredTransport {
+
+    public static final String NAME = "jdk";
+
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private static final java.net.http.HttpClient CLIENT = java.net.http.HttpClient.newBuilder()
+            .version(java.net.http.HttpClient.Version.HTTP_2)
+            .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+            .proxy(ProxySelector.getDefault())
+            .connectTimeout(Duration.ofMinutes(1))
+            .build();
+    private static final SendingFilter SENDING_FILTER = new SendingFilter();
+    private static final CapturingFilter CAPTURING_FILTER = new CapturingFilter();
+    private static final ThreadLocal<Boolean> CAPTURING = new ThreadLocal<>();
+    private static final ThreadLocal<HttpResponse<byte[]>> RECEIVED_RESPONSE = new ThreadLocal<>();
+
+    static {
+        RESTRICTED_HEADERS.addAll(Arrays.asList("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response send(RequestSpecification request, String methodPath, HttpMethodType methodType) {
+        addFilters(request);
+        return super.send(request, methodPath, methodType);
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(RequestSpecification request, String methodPath, HttpMethodType methodType,
+            Executor executor) {
+        addFilters(request);
+        HttpRequest httpRequest = null;
+        List<Filter> definedFilters = new ArrayList<>(((FilterableRequestSpecification) request).getDefinedFilters());
+        CAPTURING.set(true);
+        try {
+            super.send(request, methodPath, methodType);
+        } catch (CapturedRequest captured) {
+            httpRequest = captured.request;
+        } finally {
+            CAPTURING.remove();
+            // restassured adds its sending filters to the request and removes them only when the request is sent
+            request.noFilters().filters(definedFilters);
+        }
+        if (httpRequest == null) {
+            return super.sendAsync(request, methodPath, methodType, executor);
+        }
+        return CLIENT.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApplyAsync(response -> {
+                    RECEIVED_RESPONSE.set(response);
+                    try {
+                        return super.send(request, methodPath, methodType);
+                    } finally {
+                        RECEIVED_RESPONSE.remove();
+                    }
+                }, executor);
+    }
+
+    private static void addFilters(RequestSpecification request) {
+        if (((FilterableRequestSpecification) request).getDefinedFilters().stream().noneMatch(SendingFilter.class::isInstance)) {
+            request.filters(CAPTURING_FILTER, SENDING_FILTER);
+        }
+    }
+
+    private static boolean isSupported(FilterableRequestSpecification requestSpec) {
+        return requestSpec.getMultiPartParams().isEmpty() && !requestSpec.getConfig().getSSLConfig().isUserConfigured();
+    }
+
+    /**
+     * Builds the request of an asynchronous call and stops the filter chain before the other filters are applied
+     */
+    private static final class CapturingFilter implements OrderedFilter {
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            if (CAPTURING.get() == null) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+            throw new CapturedRequest(isSupported(requestSpec) ? buildRequest(requestSpec) : null);
+        }
+
+        @Override
+        public int getOrder() {
+            return OrderedFilter.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    private static final class CapturedRequest extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient HttpRequest request;
+
+        private CapturedRequest(HttpRequest request) {
+            super(null, null, false, false);
+            this.request = request;
+        }
+    }
+
+    private static final class SendingFilter implements OrderedFilter {
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            if (!isSupported(requestSpec)) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+            if (RECEIVED_RESPONSE.get() != null) {
+                return buildResponse(RECEIVED_RESPONSE.get());
+            }
+            HttpResponse<byte[]> response;
+            try {
+                response = CLIENT.send(buildRequest(requestSpec), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            return buildResponse(response);
+        }
+
+        @Override
+        public int getOrder() {
+            return OrderedFilter.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static HttpRequest buildRequest(FilterableRequestSpecification requestSpec) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(requestSpec.getURI()));
+        for (Header header : requestSpec.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName())) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        if (requestSpec.getCookies().exist()) {
+            builder.header("Cookie", requestSpec.getCookies().asList().stream()
+                    .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        String formBody = requestSpec.getBody() == null ? buildFormBody(requestSpec) : "";
+        if (formBody.isEmpty()) {
+            return builder.method(requestSpec.getMethod(), buildBody(requestSpec))
+                    .build();
+        }
+        if (requestSpec.getHeaders().getValue("Content-Type") == null) {
+            builder.header("Content-Type", FORM_CONTENT_TYPE);
+        }
+        return builder.method(requestSpec.getMethod(), HttpRequest.BodyPublishers.ofString(formBody, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static HttpRequest.BodyPublisher buildBody(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[]) {
+            return HttpRequest.BodyPublishers.ofByteArray((byte[]) body);
+        }
+        if (body instanceof StreamingBody) {
+            // publisher can subscribe several times (redirects, retries of the HTTP/2 stream), each time it needs a new body
+            return HttpRequest.BodyPublishers.ofInputStream(((StreamingBody) body)::newStream);
+        }
+        if (body instanceof InputStream) {
+            // length is unknown, so the body is sent with chunked transfer encoding (data frames for HTTP/2)
+            return HttpRequest.BodyPublishers.ofInputStream(() -> (InputStream) body);
+        }
+        if (body != null) {
+            return HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8);
+        }
+        return HttpRequest.BodyPublishers.noBody();
+    }
+
+    /**
+     * Encodes form params as restassured does: request params ({@code param(...)}) are sent in the body of POST requests
+     * and in the query of the others, form params of GET requests are sent in the query. Query params are already
+     * in the URI of the request specification
+     */
+    private static String buildFormBody(FilterableRequestSpecification requestSpec) {
+        if (HttpMethodType.GET.name().equalsIgnoreCase(requestSpec.getMethod())) {
+            return "";
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (HttpMethodType.POST.name().equalsIgnoreCase(requestSpec.getMethod())) {
+            params.putAll(requestSpec.getRequestParams());
+        }
+        params.putAll(requestSpec.getFormParams());
+        Charset charset = getCharset(requestSpec.getContentType());
+        List<String> pairs = new ArrayList<>();
+        params.forEach((name, value) -> {
+            Iterable<?> values = value instanceof Iterable ? (Iterable<?>) value : Collections.singletonList(value);
+            for (Object item : values) {
+                pairs.add(URLEncoder.encode(name, charset) + "=" + URLEncoder.encode(String.valueOf(item), charset));
+            }
+        });
+        return String.join("&", pairs);
+    }
+
+    private static Charset getCharset(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String[] nameValue = parameter.trim().split("=", 2);
+                if (nameValue.length == 2 && "charset".equalsIgnoreCase(nameValue[0].trim())) {
+                    try {
+                        return Charset.forName(nameValue[1].trim().replace("\"", ""));
+                    } catch (IllegalArgumentException e) {
+                        return StandardCharsets.UTF_8;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static Response buildResponse(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        List<Cookie> cookies = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> values.forEach(value -> {
+            headers.add(new Header(name, value));
+            if ("Set-Cookie".equalsIgnoreCase(name)) {
+                HttpCookie.parse(value).forEach(cookie -> cookies.add(new Cookie.Builder(cookie.getName(), cookie.getValue()).build()));
+            }
+        }));
+
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(buildStatusLine(response))
+                .setHeaders(new Headers(headers))
+                .setCookies(new Cookies(cookies))
+                .setBody(response.body());
+        response.headers().firstValue("Content-Type")
+                .ifPresent(builder::setContentType);
+        return builder.build();
+    }
+
+    private static String buildStatusLine(HttpResponse<?> response) {
+        String version = response.version() == java.net.http.HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        String reasonPhrase = Arrays.stream(HttpResponseStatusType.values())
+                .map(HttpResponseStatusType::getResponseStatus)
+                .filter(status -> status.getCode() == response.statusCode())
+                .map(HttpResponseStatus::getMessage)
+                .findFirst()
+                .orElse("");
+        return String.format("%s %d %s", version, response.statusCode(), reasonPhrase).trim();
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooling connection manager that checks connections for staleness only if they were idle longer than the specified time
+ */
+@SuppressWarnings("deprecation")
+class PooledClientConnectionManager extends PoolingClientConnectionManager {
+
+    private final long validateAfterInactivityNanos;
+    private final Map<Socket, Long> releaseTimes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    PooledClientConnectionManager(SchemeRegistry schemeRegistry, long validateAfterInactivityMillis) {
+        super(schemeRegistry);
+        this.validateAfterInactivityNanos = TimeUnit.MILLISECONDS.toNanos(validateAfterInactivityMillis);
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ClientConnectionRequest request = super.requestConnection(route, state);
+        return new ClientConnectionRequest() {
+
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit tunit) throws InterruptedException, ConnectionPoolTimeoutException {
+                ManagedClientConnection connection = request.getConnection(timeout, tunit);
+                validate(connection);
+                return connection;
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(ManagedClientConnection conn, long keepalive, TimeUnit tunit) {
+        Socket socket = conn.isOpen() ? conn.getSocket() : null;
+        if (socket != null) {
+            releaseTimes.put(socket, System.nanoTime());
+        }
+        super.releaseConnection(conn, keepalive, tunit);
+    }
+
+    private void validate(ManagedClientConnection connection) {
+        if (validateAfterInactivityNanos <= 0 || !connection.isOpen()) {
+            return;
+        }
+        Long releaseTime = releaseTimes.get(connection.getSocket());
+        if (releaseTime != null && System.nanoTime() - releaseTime > validateAfterInactivityNanos && connection.isStale()) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // connection will be reopened by the request director
+            }
+        }
+    }
+}
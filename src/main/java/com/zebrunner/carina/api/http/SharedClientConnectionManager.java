@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection manager of a single restassured http client that leases connections from the shared pool.<br>
+ * Restassured shuts down the connection manager after each request, so shutdown never affects the shared pool.
+ * If restassured registers its own scheme (for example custom SSL socket factory), connections for this client
+ * are created by a private non-pooled manager to not change the shared pool settings
+ */
+@SuppressWarnings("deprecation")
+class SharedClientConnectionManager implements ClientConnectionManager {
+
+    private final PooledClientConnectionManager pool;
+    private final SchemeRegistry schemeRegistry;
+    private ClientConnectionManager isolatedManager;
+
+    SharedClientConnectionManager(PooledClientConnectionManager pool) {
+        this.pool = pool;
+        this.schemeRegistry = new SchemeRegistry();
+        for (String schemeName : pool.getSchemeRegistry().getSchemeNames()) {
+            this.schemeRegistry.register(pool.getSchemeRegistry().getScheme(schemeName));
+        }
+    }
+
+    @Override
+    public SchemeRegistry getSchemeRegistry() {
+        return schemeRegistry;
+    }
+
+    @Override
+    public synchronized ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        if (isolatedManager == null && isSchemeOverridden(route.getTargetHost().getSchemeName())) {
+            isolatedManager = new BasicClientConnectionManager(schemeRegistry);
+        }
+        return isolatedManager != null
+                ? isolatedManager.requestConnection(route, state)
+                : pool.requestConnection(route, state);
+    }
+
+    private boolean isSchemeOverridden(String schemeName) {
+        Scheme scheme = schemeRegistry.get(schemeName);
+        return scheme != null && scheme != pool.getSchemeRegistry().get(schemeName);
+    }
+
+    @Override
+    public synchronized void releaseConnection(ManagedClientConnection conn, long validDuration, TimeUnit timeUnit) {
+        if (isolatedManager != null) {
+            isolatedManager.releaseConnection(conn, validDuration, timeUnit);
+        } else {
+            pool.releaseConnection(conn, validDuration, timeUnit);
+        }
+    }
+
+    @Override
+    public synchronized void closeIdleConnections(long idletime, TimeUnit timeUnit) {
+        if (isolatedManager != null) {
+            isolatedManager.closeIdleConnections(idletime, timeUnit);
+        }
+    }
+
+    @Override
+    public synchronized void closeExpiredConnections() {
+        if (isolatedManager != null) {
+            isolatedManager.closeExpiredConnections();
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (isolatedManager != null) {
+            isolatedManager.shutdown();
+        }
+    }
+}
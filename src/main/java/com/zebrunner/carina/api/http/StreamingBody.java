@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request body that is written by the {@link BodyWriter} (for example a FreeMarker template) as UTF-8 bytes while
+ * the transport reads it, so the whole body is never kept in memory as a String.<br>
+ * Writing starts on the first read on a separate thread. If the writer fails, the read fails too, so a truncated
+ * body is never sent. The body can be read only once, {@link #newStream()} creates a new body that writes the same
+ * content again. Closing the body stops the writer and closes all the bodies created from it.
+ * Both {@link RestAssuredTransport} and {@link JdkHttpTransport} send it with chunked transfer encoding,
+ * for restassured its content type is encoded as binary data because json and xml encoders buffer the stream
+ */
+public final class StreamingBody extends InputStream {
+
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private final BodyWriter bodyWriter;
+    private final String description;
+    private final List<StreamingBody> streams = new ArrayList<>();
+    private PipedInputStream pipe;
+    private boolean closed;
+    private volatile Throwable failure;
+
+    public StreamingBody(BodyWriter bodyWriter, String description) {
+        this.bodyWriter = bodyWriter;
+        this.description = description;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = start().read();
+        if (result < 0) {
+            checkFailure();
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int result = start().read(b, off, len);
+        if (result < 0) {
+            checkFailure();
+        }
+        return result;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return pipe == null ? 0 : pipe.available();
+    }
+
+    /**
+     * Creates a body that writes the same content again, for example for the next attempt of the request.
+     * It is closed together with this body
+     *
+     * @return new body that is not read yet
+     * @throws IllegalStateException if this body is closed
+     */
+    public synchronized StreamingBody newStream() {
+        if (closed) {
+            throw new IllegalStateException("Streaming body is closed: " + description);
+        }
+        StreamingBody stream = new StreamingBody(bodyWriter, description);
+        streams.add(stream);
+        return stream;
+    }
+
+    /**
+     * Closes the body and all the bodies created by {@link #newStream()}. The writer blocked on the full pipe fails,
+     * so it never waits for the reader that stopped reading
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        IOException exception = null;
+        for (StreamingBody stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        streams.clear();
+        if (pipe != null) {
+            pipe.close();
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "<streaming body: " + description + ">";
+    }
+
+    private synchronized PipedInputStream start() throws IOException {
+        if (closed) {
+            throw new IOException("Streaming body is closed: " + description);
+        }
+        if (pipe == null) {
+            pipe = new PipedInputStream(PIPE_SIZE);
+            PipedOutputStream output = new PipedOutputStream(pipe);
+            WriterHolder.EXECUTOR.execute(() -> {
+                try {
+                    Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                    bodyWriter.writeTo(writer);
+                    writer.close();
+                } catch (Throwable e) {
+                    // failure should be visible before the reader gets the end of the stream
+                    failure = e;
+                    try {
+                        output.close();
+                    } catch (IOException closeException) {
+                        e.addSuppressed(closeException);
+                    }
+                }
+            });
+        }
+        return pipe;
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Unable to write request body " + description, failure);
+        }
+    }
+
+    /**
+     * Writes the body to the writer. The writer is closed after this method returns
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private static final class WriterHolder {
+
+        private static final ExecutorService EXECUTOR;
+
+        static {
+            AtomicInteger threadNumber = new AtomicInteger();
+            EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "carina-api-body-writer-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private WriterHolder() {
+            // hide
+        }
+    }
+}
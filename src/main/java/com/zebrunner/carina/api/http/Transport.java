@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Sends prepared API requests. Custom implementations are discovered through {@link java.util.ServiceLoader}
+ * and selected by the {@link com.zebrunner.carina.api.config.APIConfiguration.Parameter#API_TRANSPORT} parameter
+ */
+public interface Transport {
+
+    /**
+     * @return name of the transport used to select it in the configuration
+     */
+    String getName();
+
+    Response send(RequestSpecification request, String methodPath, HttpMethodType methodType);
+
+    /**
+     * Sends the request asynchronously. By default the request is sent by {@link #send} on the executor,
+     * so one executor thread is held for the whole round trip of the request
+     *
+     * @param executor executor that sends the request and processes the response
+     * @return future that is completed with the response
+     */
+    default CompletableFuture<Response> sendAsync(RequestSpecification request, String methodPath, HttpMethodType methodType,
+            Executor executor) {
+        return CompletableFuture.supplyAsync(() -> send(request, methodPath, methodType), executor);
+    }
+
+}
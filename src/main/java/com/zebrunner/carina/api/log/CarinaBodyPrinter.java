@@ -17,6 +17,7 @@
 package com.zebrunner.carina.api.log;
 
 import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
@@ -129,9 +130,11 @@ public class CarinaBodyPrinter {
         if (!hiddenPaths.isEmpty() && body != null && !StringUtils.isEmpty(body)) {
             switch (contentType) {
             case JSON:
+                DocumentContext document = JsonPath.using(JSON_PARSE_CFG).parse(body);
                 for (String p : hiddenPaths) {
-                    body = JsonPath.using(JSON_PARSE_CFG).parse(body).set(p, HIDDEN_PATTERN).jsonString();
+                    document.set(p, HIDDEN_PATTERN);
                 }
+                body = document.jsonString();
                 break;
             case XML:
                 for (String p : hiddenPaths) {
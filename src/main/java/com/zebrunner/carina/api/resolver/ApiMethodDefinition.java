@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import com.zebrunner.carina.api.http.ContentTypeEnum;
+import com.zebrunner.carina.api.http.HttpMethodType;
+import com.zebrunner.carina.api.http.HttpResponseStatus;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable resolved description of an API method: url template, method type, content type, headers, cookies,
+ * templates, hidden log parts etc.<br>
+ * Definitions of class-based API methods are resolved once per class and shared between all instances and threads,
+ * so an API method instance holds only the state of a single call (request specification, body, actual path and response).
+ * Definitions of endpoint template calls depend on the arguments and are resolved on every call, the annotated parameters
+ * are taken from the {@link com.zebrunner.carina.api.binding.MethodBindingPlan} of the template method
+ */
+public final class ApiMethodDefinition {
+
+    private static final Map<Class<?>, ApiMethodDefinition> DEFINITIONS = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final HttpMethodType methodType;
+    private final boolean startLineResolved;
+    private final String contentType;
+    private final ContentTypeEnum contentTypeEnum;
+    private final Map<String, ?> queryParams;
+    private final Map<String, ?> pathParams;
+    private final Map<String, ?> headers;
+    private final Map<String, ?> cookies;
+    private final Map<String, ?> properties;
+    private final String propertiesPath;
+    private final String requestTemplatePath;
+    private final String responseTemplatePath;
+    private final RequestBodyContainer requestBody;
+    private final HttpResponseStatus successfulHttpStatus;
+    private final Set<String> hiddenRequestHeaders;
+    private final Set<String> hiddenRequestBodyParts;
+    private final Set<String> hiddenResponseHeaders;
+    private final Set<String> hiddenResponseBodyParts;
+
+    private ApiMethodDefinition(AnnotatedElement element) {
+        Optional<RequestStartLine> startLine = ContextResolverChain.resolveUrl(element);
+        this.startLineResolved = startLine.isPresent();
+        this.url = startLine.map(RequestStartLine::getUrl).orElse(null);
+        this.methodType = startLine.map(RequestStartLine::getMethodType).orElse(null);
+
+        this.contentType = ContextResolverChain.resolveContentType(element)
+                .orElse(ContentTypeEnum.JSON.getMainStringValue());
+        this.contentTypeEnum = Arrays.stream(ContentTypeEnum.values())
+                .filter(type -> ArrayUtils.contains(type.getStringValues(), contentType))
+                .findFirst()
+                .orElse(ContentTypeEnum.NA);
+
+        this.queryParams = copyOf(ContextResolverChain.resolveQueryParams(element));
+        this.pathParams = copyOf(ContextResolverChain.resolvePathParams(element));
+        this.headers = copyOf(ContextResolverChain.resolveHeaders(element));
+        this.cookies = copyOf(ContextResolverChain.resolveCookies(element));
+        this.properties = copyOf(ContextResolverChain.resolveProperties(element));
+        this.propertiesPath = ContextResolverChain.resolvePropertiesPath(element).orElse(null);
+        this.requestTemplatePath = ContextResolverChain.resolveRequestTemplatePath(element).orElse(null);
+        this.responseTemplatePath = ContextResolverChain.resolveResponseTemplatePath(element).orElse(null);
+        this.requestBody = ContextResolverChain.resolveRequestBody(element).orElse(null);
+        this.successfulHttpStatus = ContextResolverChain.resolveSuccessfulHttpStatus(element).orElse(null);
+
+        this.hiddenRequestHeaders = ContextResolverChain.resolveHiddenRequestHeadersInLogs(element)
+                .map(Collections::unmodifiableSet)
+                .orElse(null);
+        this.hiddenRequestBodyParts = ContextResolverChain.resolveHiddenRequestBodyPartsInLogs(element)
+                .map(Collections::unmodifiableSet)
+                .orElse(null);
+        this.hiddenResponseHeaders = ContextResolverChain.resolveHiddenResponseHeadersInLogs(element)
+                .map(Collections::unmodifiableSet)
+                .orElse(null);
+        this.hiddenResponseBodyParts = ContextResolverChain.resolveHiddenResponseBodyPartsInLogs(element)
+                .map(Collections::unmodifiableSet)
+                .orElse(null);
+    }
+
+    /**
+     * Returns definition of the API method described by the element. Definitions of classes are resolved once and cached,
+     * definitions of other elements (for example, methods of endpoint templates with parameters) are resolved every time
+     *
+     * @param element class of the API method or other supported annotated element
+     * @return see {@link ApiMethodDefinition}
+     */
+    public static ApiMethodDefinition of(AnnotatedElement element) {
+        return element instanceof Class
+                ? DEFINITIONS.computeIfAbsent((Class<?>) element, ApiMethodDefinition::new)
+                : new ApiMethodDefinition(element);
+    }
+
+    private static Map<String, ?> copyOf(Optional<Map<String, ?>> map) {
+        return map.<Map<String, ?>>map(m -> Collections.unmodifiableMap(new LinkedHashMap<>(m)))
+                .orElse(null);
+    }
+
+    public Optional<RequestStartLine> getStartLine() {
+        return startLineResolved
+                ? Optional.of(new RequestStartLine(url, methodType))
+                : Optional.empty();
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public ContentTypeEnum getContentTypeEnum() {
+        return contentTypeEnum;
+    }
+
+    public Optional<Map<String, ?>> getQueryParams() {
+        return Optional.ofNullable(queryParams);
+    }
+
+    public Optional<Map<String, ?>> getPathParams() {
+        return Optional.ofNullable(pathParams);
+    }
+
+    public Optional<Map<String, ?>> getHeaders() {
+        return Optional.ofNullable(headers);
+    }
+
+    public Optional<Map<String, ?>> getCookies() {
+        return Optional.ofNullable(cookies);
+    }
+
+    public Optional<Map<String, ?>> getProperties() {
+        return Optional.ofNullable(properties);
+    }
+
+    public Optional<String> getPropertiesPath() {
+        return Optional.ofNullable(propertiesPath);
+    }
+
+    public Optional<String> getRequestTemplatePath() {
+        return Optional.ofNullable(requestTemplatePath);
+    }
+
+    public Optional<String> getResponseTemplatePath() {
+        return Optional.ofNullable(responseTemplatePath);
+    }
+
+    /**
+     * Returns a copy of the request body container, so changes of the returned container do not affect the definition.
+     * The body object itself is the argument of the endpoint template method call and is returned as is
+     *
+     * @return see {@link RequestBodyContainer}
+     */
+    public Optional<RequestBodyContainer> getRequestBody() {
+        return Optional.ofNullable(requestBody)
+                .map(body -> new RequestBodyContainer(body.getBody().orElse(null), body.isJson()));
+    }
+
+    public Optional<HttpResponseStatus> getSuccessfulHttpStatus() {
+        return Optional.ofNullable(successfulHttpStatus);
+    }
+
+    public Optional<Set<String>> getHiddenRequestHeaders() {
+        return Optional.ofNullable(hiddenRequestHeaders);
+    }
+
+    public Optional<Set<String>> getHiddenRequestBodyParts() {
+        return Optional.ofNullable(hiddenRequestBodyParts);
+    }
+
+    public Optional<Set<String>> getHiddenResponseHeaders() {
+        return Optional.ofNullable(hiddenResponseHeaders);
+    }
+
+    public Optional<Set<String>> getHiddenResponseBodyParts() {
+        return Optional.ofNullable(hiddenResponseBodyParts);
+    }
+}
@@ -31,7 +31,7 @@ public class ContextResolverChain {
     }
 
     private static final List<ContextResolver<? extends AnnotatedElement>> CONTEXT_RESOLVERS = List.of(
-            new AnnotationContextResolver(),
+            new MetadataContextResolver(),
             new PropertiesContextResolver(),
             new MethodBasedContextResolver()
     );
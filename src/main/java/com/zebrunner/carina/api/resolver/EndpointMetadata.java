@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import com.zebrunner.carina.api.http.HttpResponseStatus;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Metadata of an API method class generated at compile time by the carina-api-processor artifact.<br>
+ * Generated class is placed in the package of the API method and named by {@link #METADATA_CLASS_SUFFIX} rule,
+ * for example {@code com.example.GetUserMethod_ApiMetadata} or {@code com.example.Api_GetUserMethod_ApiMetadata}
+ * for a nested class. Values are taken from the whole class hierarchy, so when metadata exists,
+ * these attributes are not resolved by reflection
+ */
+public interface EndpointMetadata {
+
+    String METADATA_CLASS_SUFFIX = "_ApiMetadata";
+
+    Optional<RequestStartLine> getStartLine();
+
+    Optional<String> getContentType();
+
+    Optional<String> getRequestTemplatePath();
+
+    Optional<String> getResponseTemplatePath();
+
+    Optional<HttpResponseStatus> getSuccessfulHttpStatus();
+
+    Map<String, ?> getHeaders();
+
+    Map<String, ?> getCookies();
+
+}
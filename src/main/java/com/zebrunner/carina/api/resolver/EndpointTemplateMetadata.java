@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Metadata of an endpoint template interface generated at compile time by the carina-api-processor artifact.
+ * Naming of the generated class follows {@link EndpointMetadata#METADATA_CLASS_SUFFIX} rule
+ */
+public interface EndpointTemplateMetadata {
+
+    /**
+     * Returns method type and full url of the template method
+     *
+     * @param method method declared in the template interface
+     * @return start line or empty if the method is not described by the metadata
+     */
+    Optional<RequestStartLine> getStartLine(Method method);
+
+}
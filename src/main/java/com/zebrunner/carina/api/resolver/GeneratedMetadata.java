@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+
+/**
+ * Finds metadata classes generated at compile time. The lookup is done once per class
+ */
+public final class GeneratedMetadata {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final ClassValue<Optional<Object>> METADATA = new ClassValue<>() {
+        @Override
+        protected Optional<Object> computeValue(Class<?> type) {
+            return loadMetadata(type);
+        }
+    };
+
+    private GeneratedMetadata() {
+        // hide
+    }
+
+    static <T> Optional<T> find(Class<?> type, Class<T> metadataType) {
+        return METADATA.get(type)
+                .filter(metadataType::isInstance)
+                .map(metadataType::cast);
+    }
+
+    /**
+     * Returns name of the class generated by carina-api-processor for the type: it is placed in the package of the type,
+     * names of the nested classes are joined by underscore and the suffix is appended
+     *
+     * @param type   API method class or endpoint template interface
+     * @param suffix suffix of the generated class, for example {@link EndpointMetadata#METADATA_CLASS_SUFFIX}
+     * @return fully qualified name of the generated class
+     */
+    public static String getGeneratedClassName(Class<?> type, String suffix) {
+        String packageName = type.getPackageName();
+        String className = packageName.isEmpty()
+                ? type.getName()
+                : type.getName().substring(packageName.length() + 1);
+        return (packageName.isEmpty() ? "" : packageName + ".") + className.replace('$', '_') + suffix;
+    }
+
+    private static Optional<Object> loadMetadata(Class<?> type) {
+        if (type.getClassLoader() == null) {
+            return Optional.empty();
+        }
+        String metadataClassName = getGeneratedClassName(type, EndpointMetadata.METADATA_CLASS_SUFFIX);
+        try {
+            Class<?> metadataClass = Class.forName(metadataClassName, true, type.getClassLoader());
+            LOGGER.debug("Generated metadata found for {}: {}", type.getName(), metadataClassName);
+            return Optional.of(metadataClass.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.warn("Generated metadata {} can't be used, annotations will be resolved by reflection: {}", metadataClassName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import com.zebrunner.carina.api.http.HttpResponseStatus;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Takes annotation values of the class from the metadata generated at compile time.
+ * If there is no generated metadata, annotations are resolved by reflection
+ */
+class MetadataContextResolver extends AnnotationContextResolver {
+
+    @Override
+    public Optional<RequestStartLine> resolveUrl(Class<?> element) {
+        return resolve(element, EndpointMetadata::getStartLine, super::resolveUrl);
+    }
+
+    @Override
+    public Optional<String> resolveContentType(Class<?> element) {
+        return resolve(element, EndpointMetadata::getContentType, super::resolveContentType);
+    }
+
+    @Override
+    public Optional<String> resolveRequestTemplatePath(Class<?> element) {
+        return resolve(element, EndpointMetadata::getRequestTemplatePath, super::resolveRequestTemplatePath);
+    }
+
+    @Override
+    public Optional<String> resolveResponseTemplatePath(Class<?> element) {
+        return resolve(element, EndpointMetadata::getResponseTemplatePath, super::resolveResponseTemplatePath);
+    }
+
+    @Override
+    public Optional<HttpResponseStatus> resolveSuccessfulHttpStatus(Class<?> element) {
+        return resolve(element, EndpointMetadata::getSuccessfulHttpStatus, super::resolveSuccessfulHttpStatus);
+    }
+
+    @Override
+    public Optional<Map<String, ?>> resolveHeaders(Class<?> element) {
+        return resolve(element, metadata -> Optional.of(metadata.getHeaders()), super::resolveHeaders);
+    }
+
+    @Override
+    public Optional<Map<String, ?>> resolveCookies(Class<?> element) {
+        return resolve(element, metadata -> Optional.of(metadata.getCookies()), super::resolveCookies);
+    }
+
+    private static <T> Optional<T> resolve(Class<?> element, Function<EndpointMetadata, Optional<T>> metadataGetter,
+            Function<Class<?>, Optional<T>> reflectionResolver) {
+        Optional<EndpointMetadata> metadata = GeneratedMetadata.find(element, EndpointMetadata.class);
+        return metadata.isPresent()
+                ? metadataGetter.apply(metadata.get())
+                : reflectionResolver.apply(element);
+    }
+}
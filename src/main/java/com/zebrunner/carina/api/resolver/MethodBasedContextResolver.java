@@ -51,6 +51,12 @@ public class MethodBasedContextResolver implements ContextResolver<RuntimeMethod
 
     @Override
     public Optional<RequestStartLine> resolveUrl(RuntimeMethod element) {
+        Optional<RequestStartLine> generatedStartLine = GeneratedMetadata.find(element.getMethod().getDeclaringClass(), EndpointTemplateMetadata.class)
+                .flatMap(metadata -> metadata.getStartLine(element.getMethod()));
+        if (generatedStartLine.isPresent()) {
+            return generatedStartLine;
+        }
+
         EndpointTemplateMethod endpointAnnotation = resolveEndpointTemplateMethod(element);
         HttpMethodType methodType = endpointAnnotation.methodType();
 
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import com.zebrunner.carina.utils.config.Configuration;
+import com.zebrunner.carina.utils.config.StandardConfigurationOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Url of the API method split into literal parts and {@code ${...}} placeholders.<br>
+ * Placeholders {@code ${config.env.<name>}} and {@code ${config.<name>}} are replaced by environment and global
+ * configuration values, other placeholders by path params. Placeholders that have no value are kept as is,
+ * so they still can be replaced later by {@code AbstractApiMethod#replaceUrlPlaceholder}.
+ * Templates are compiled once per url
+ */
+public final class UrlTemplate {
+
+    private static final String PLACEHOLDER_START = "${";
+    private static final String PLACEHOLDER_END = "}";
+    private static final String ENV_PARAM_PREFIX = "config.env.";
+    private static final String CONFIG_PARAM_PREFIX = "config.";
+
+    private static final Map<String, UrlTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final List<Segment> segments;
+    private final int literalLength;
+
+    private UrlTemplate(String url, List<Segment> segments) {
+        this.url = url;
+        this.segments = Collections.unmodifiableList(segments);
+        this.literalLength = segments.stream()
+                .filter(segment -> segment.type == SegmentType.LITERAL)
+                .mapToInt(segment -> segment.value.length())
+                .sum();
+    }
+
+    public static UrlTemplate compile(String url) {
+        return TEMPLATES.computeIfAbsent(url, UrlTemplate::parse);
+    }
+
+    private static UrlTemplate parse(String url) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < url.length()) {
+            int start = url.indexOf(PLACEHOLDER_START, position);
+            int end = start < 0 ? -1 : url.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                segments.add(new Segment(SegmentType.LITERAL, url.substring(position)));
+                break;
+            }
+            if (start > position) {
+                segments.add(new Segment(SegmentType.LITERAL, url.substring(position, start)));
+            }
+            String name = url.substring(start + PLACEHOLDER_START.length(), end);
+            if (name.startsWith(ENV_PARAM_PREFIX)) {
+                segments.add(new Segment(SegmentType.ENV_PARAM, name.substring(ENV_PARAM_PREFIX.length())));
+            } else if (name.startsWith(CONFIG_PARAM_PREFIX)) {
+                segments.add(new Segment(SegmentType.CONFIG_PARAM, name.substring(CONFIG_PARAM_PREFIX.length())));
+            } else {
+                segments.add(new Segment(SegmentType.PATH_PARAM, name));
+            }
+            position = end + PLACEHOLDER_END.length();
+        }
+        return new UrlTemplate(url, segments);
+    }
+
+    /**
+     * Builds url replacing placeholders by configuration values and path params
+     *
+     * @param pathParams values of the path params, null value removes the placeholder and the trailing slash of the url
+     * @return url
+     */
+    public String expand(Map<String, ?> pathParams) {
+        StringBuilder result = new StringBuilder(literalLength + segments.size() * 16);
+        boolean nullValueFound = false;
+        for (Segment segment : segments) {
+            switch (segment.type) {
+            case LITERAL:
+                result.append(segment.value);
+                break;
+            case ENV_PARAM:
+                result.append(Configuration.get(segment.value, StandardConfigurationOption.ENVIRONMENT).orElse(""));
+                break;
+            case CONFIG_PARAM:
+                result.append(Configuration.get(segment.value, StandardConfigurationOption.GLOBAL).orElse(""));
+                break;
+            default:
+                if (pathParams.containsKey(segment.value)) {
+                    Object value = pathParams.get(segment.value);
+                    if (value != null) {
+                        result.append(value);
+                    } else {
+                        nullValueFound = true;
+                    }
+                } else {
+                    result.append(PLACEHOLDER_START).append(segment.value).append(PLACEHOLDER_END);
+                }
+            }
+        }
+        if (nullValueFound && result.length() > 0 && result.charAt(result.length() - 1) == '/') {
+            result.setLength(result.length() - 1);
+        }
+        return result.toString();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    private enum SegmentType {
+        LITERAL,
+        ENV_PARAM,
+        CONFIG_PARAM,
+        PATH_PARAM
+    }
+
+    private static final class Segment {
+
+        private final SegmentType type;
+        private final String value;
+
+        private Segment(SegmentType type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  *******************************************************************************/
 package com.zebrunner.carina.utils.rest;
 
+import com.zebrunner.carina.api.http.ConnectionPool;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
@@ -38,6 +39,7 @@ public final class RestUtil {
     public static Response sendHttpPost(String contentType, Map<String, ?> parameters, String httpPostCommand, boolean responseLog) {
         if (responseLog) {
             return given()
+                    .config(ConnectionPool.config())
                     .contentType(contentType)
                     .formParams(parameters)
                     .log().all()
@@ -47,6 +49,7 @@ public final class RestUtil {
                     .post(httpPostCommand);
         }
         return given()
+                .config(ConnectionPool.config())
                 .contentType(contentType)
                 .formParams(parameters)
                 // .log().all()
@@ -58,6 +61,7 @@ public final class RestUtil {
     public static Response sendHttpPost(String contentType, String payload, String httpPostCommand, boolean responseLog) {
         if (responseLog) {
             return given()
+                    .config(ConnectionPool.config())
                     .contentType(contentType)
                     .body(payload)
                     .log().all()
@@ -67,6 +71,7 @@ public final class RestUtil {
                     .post(httpPostCommand);
         }
         return given()
+                .config(ConnectionPool.config())
                 .contentType(contentType)
                 .body(payload)
                 // .log().all()
@@ -82,6 +87,7 @@ public final class RestUtil {
     public static Response sendHttpGet(String contentType, String httpGetCommand, boolean responseLog) {
         if (responseLog) {
             return given()
+                    .config(ConnectionPool.config())
                     .contentType(contentType)
                     .log().all()
                     .expect()
@@ -90,6 +96,7 @@ public final class RestUtil {
                     .get(httpGetCommand);
         }
         return given()
+                .config(ConnectionPool.config())
                 .contentType(contentType)
                 .log().all()
                 .when()
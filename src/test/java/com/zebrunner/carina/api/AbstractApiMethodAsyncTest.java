@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.zebrunner.carina.api.http.JdkHttpTransport;
+import com.zebrunner.carina.api.mock.apimethod.NoContentTypeMethod;
+import com.zebrunner.carina.api.mock.server.MockServer;
+
+public class AbstractApiMethodAsyncTest {
+
+    private static final int CALLS = 5;
+    private static final int DELAY_MILLIS = 1000;
+
+    private MockServer server;
+    private WireMock wireMock;
+
+    @BeforeClass
+    public void up() {
+        server = new MockServer();
+        server.start();
+        wireMock = new WireMock(server.getPort());
+    }
+
+    @Test
+    public void testCallAPIAsync() throws IOException {
+        String actualJsonData = Files.lines(Path.of("src/test/resources/validation/array/duplicate/array_act.json"))
+                .collect(Collectors.joining("\n"));
+        server.createResponse("/mock1", actualJsonData);
+        NoContentTypeMethod noContentTypeMethod = new NoContentTypeMethod(server.getBaseUrl());
+        noContentTypeMethod.callAPIAsync().join();
+        noContentTypeMethod.validateResponse();
+    }
+
+    @Test
+    public void testJdkTransportDoesNotHoldThread() throws IOException {
+        String actualJsonData = Files.lines(Path.of("src/test/resources/validation/array/duplicate/array_act.json"))
+                .collect(Collectors.joining("\n"));
+        wireMock.register(WireMock.get(WireMock.urlEqualTo("/mock1"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain")
+                        .withBody(actualJsonData)
+                        .withFixedDelay(DELAY_MILLIS)));
+        List<NoContentTypeMethod> methods = IntStream.range(0, CALLS)
+                .mapToObj(i -> new NoContentTypeMethod(server.getBaseUrl()))
+                .collect(Collectors.toList());
+        methods.forEach(method -> method.setTransport(new JdkHttpTransport()));
+
+        // a transport that holds the only thread of the executor sends the calls one by one
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            long start = System.nanoTime();
+            CompletableFuture.allOf(methods.stream()
+                    .map(method -> method.callAPIAsync(executor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue(elapsed < CALLS * DELAY_MILLIS, "Calls were sent one by one: " + elapsed + " ms");
+        } finally {
+            executor.shutdownNow();
+        }
+        methods.forEach(NoContentTypeMethod::validateResponse);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void down() {
+        server.stop();
+    }
+}
@@ -50,4 +50,16 @@ public class AbstractApiMethodTest {
         final String expectedMethodPath = Configuration.get("base_url", StandardConfigurationOption.ENVIRONMENT).orElse("") + "/mock/part/" + id;
         Assert.assertEquals(method.getMethodPath(), expectedMethodPath);
     }
+
+    @Test
+    public void testDefinitionIsSharedBetweenInstances() {
+        PutDocMethod first = new PutDocMethod();
+        PutDocMethod second = new PutDocMethod();
+        Assert.assertSame(first.getDefinition(), second.getDefinition());
+
+        first.setMethodPath("https://example.com/changed");
+        Assert.assertNotEquals(second.getMethodPath(), first.getMethodPath());
+        Assert.assertEquals(second.getDefinition().getStartLine().orElseThrow().getUrl(),
+                first.getDefinition().getStartLine().orElseThrow().getUrl());
+    }
 }
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.zebrunner.carina.api.mock.apimethod.NoContentTypeMethod;
+import com.zebrunner.carina.api.mock.server.MockServer;
+
+public class ApiBatchExecutorTest {
+
+    private MockServer server;
+
+    @BeforeClass
+    public void up() {
+        server = new MockServer();
+        server.start();
+    }
+
+    @Test
+    public void testBatchExecution() throws IOException {
+        String actualJsonData = Files.lines(Path.of("src/test/resources/validation/array/duplicate/array_act.json"))
+                .collect(Collectors.joining("\n"));
+        server.createResponse("/mock1", actualJsonData);
+        List<NoContentTypeMethod> methods = Stream.generate(() -> new NoContentTypeMethod(server.getBaseUrl()))
+                .limit(10)
+                .collect(Collectors.toList());
+        List<ApiCallResult<NoContentTypeMethod>> results = ApiBatchExecutor.<NoContentTypeMethod>builder()
+                .parallelism(4)
+                .perHostParallelism(2)
+                .validateWith(method -> method.validateResponse())
+                .execute(methods);
+        Assert.assertEquals(results.size(), methods.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals(results.get(i).getIndex(), i, "Results are not in the submission order");
+            Assert.assertSame(results.get(i).getMethod(), methods.get(i));
+            Assert.assertTrue(results.get(i).isSuccessful(), results.get(i).toString());
+            Assert.assertEquals(results.get(i).getStatusCode(), 200);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void down() {
+        server.stop();
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api;
+
+import com.zebrunner.carina.api.annotation.ApiMethodWAnnotation;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class PayloadStreamTest {
+
+    private static final String TEMPLATE_PATH = "json/testPayload.json";
+
+    @Test
+    public void testCsvRows() throws IOException {
+        Path rows = Files.createTempFile("payloads", ".csv");
+        Files.writeString(rows, "id,name\n1,\"Smith, John\"\n\n2,\"say \"\"hi\"\"\nbye\"\n", StandardCharsets.UTF_8);
+
+        PayloadStream payloads = PayloadStream.of(TEMPLATE_PATH, rows)
+                .properties(Map.of("city", "Boston", "name", "unknown"));
+        try (Stream<String> bodies = payloads.stream()) {
+            Assert.assertEquals(bodies.collect(Collectors.toList()), List.of(
+                    "{\"id\": \"1\", \"name\": \"Smith, John\", \"city\": \"Boston\"}\n",
+                    "{\"id\": \"2\", \"name\": \"say \"hi\"\nbye\", \"city\": \"Boston\"}\n"));
+        } finally {
+            Files.delete(rows);
+        }
+    }
+
+    @Test
+    public void testParallelJsonLinesRowsKeepOrder() throws IOException {
+        Path rows = Files.createTempFile("payloads", ".jsonl");
+        Files.write(rows, IntStream.range(0, 200)
+                .mapToObj(i -> String.format("{\"id\": %d, \"name\": \"generate_word(6)\", \"city\": \"city%d\"}", i, i))
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+
+        PayloadStream payloads = PayloadStream.of(TEMPLATE_PATH, rows)
+                .parallelism(4)
+                .queueCapacity(8);
+        int expectedId = 0;
+        try {
+            for (String body : payloads) {
+                Assert.assertTrue(body.matches("\\{\"id\": \"" + expectedId + "\", \"name\": \"[a-zA-Z]{6}\", \"city\": \"city" + expectedId + "\"}\\s*"), body);
+                expectedId++;
+            }
+        } finally {
+            Files.delete(rows);
+        }
+        Assert.assertEquals(expectedId, 200);
+    }
+
+    @Test
+    public void testClosedMapStopsRendering() throws IOException, InterruptedException {
+        Path rows = Files.createTempFile("payloads", ".jsonl");
+        Files.write(rows, IntStream.range(0, 100)
+                .mapToObj(i -> String.format("{\"id\": %d, \"name\": \"name%d\", \"city\": \"city%d\"}", i, i, i))
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+
+        PayloadStream payloads = PayloadStream.of(TEMPLATE_PATH, rows)
+                .parallelism(2)
+                .queueCapacity(2);
+        try (Stream<ApiMethodWAnnotation> methods = payloads.map(body -> new ApiMethodWAnnotation())) {
+            Assert.assertEquals(methods.limit(3).count(), 3);
+        } finally {
+            Files.delete(rows);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (isRendering() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertFalse(isRendering(), "Rendering threads are still alive after the stream is closed");
+    }
+
+    private static boolean isRendering() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.isAlive() && thread.getName().startsWith("carina-api-payload-"));
+    }
+}
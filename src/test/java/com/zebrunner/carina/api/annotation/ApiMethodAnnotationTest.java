@@ -15,12 +15,21 @@
  *******************************************************************************/
 package com.zebrunner.carina.api.annotation;
 
+import com.zebrunner.carina.api.AbstractApiMethodV2;
+import com.zebrunner.carina.api.apitools.annotation.AnnotationProcessorUtils;
+import com.zebrunner.carina.api.binding.RuntimeMethod;
+import com.zebrunner.carina.api.binding.TemplateFactory;
 import com.zebrunner.carina.api.http.ContentTypeEnum;
+import com.zebrunner.carina.api.http.HttpMethodType;
+import com.zebrunner.carina.api.resolver.ApiMethodDefinition;
+import com.zebrunner.carina.api.resolver.RequestBodyContainer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import io.restassured.internal.RequestSpecificationImpl;
 
+import java.lang.reflect.Method;
+
 public class ApiMethodAnnotationTest {
 
     @Test
@@ -36,4 +45,55 @@ public class ApiMethodAnnotationTest {
                 .getStringValues()[0], "Content type from annotation not as expected");
     }
 
+    @Test
+    public void testEndpointTemplateBinding() {
+        TemplateWAnnotation template = TemplateFactory.prepareTemplate(TemplateWAnnotation.class);
+        AbstractApiMethodV2 first = template.getUser(1L);
+        AbstractApiMethodV2 second = template.getUser(2L);
+        Assert.assertEquals(first.getMethodPath(), "http://test.api.com/users/1", "Method path of the first call not as expected");
+        Assert.assertEquals(second.getMethodPath(), "http://test.api.com/users/2", "Method path of the second call not as expected");
+        Assert.assertEquals(((RequestSpecificationImpl) second.getRequest()).getContentType(), ContentTypeEnum.XML
+                .getStringValues()[0], "Content type from annotation not as expected");
+    }
+
+    @Test
+    public void testEndpointTemplateDefaultMethod() {
+        TemplateWAnnotation template = TemplateFactory.prepareTemplate(TemplateWAnnotation.class);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(template.getFirstUser().getMethodPath(), "http://test.api.com/users/1",
+                    "Method path of the default method not as expected");
+        }
+    }
+
+    @Test
+    public void testComposedAnnotation() throws NoSuchMethodException {
+        Method method = TemplateWAnnotation.class.getMethod("getUsers");
+        EndpointTemplateMethod annotation = AnnotationProcessorUtils.getAnnotation(method, EndpointTemplateMethod.class).orElseThrow();
+        Assert.assertSame(AnnotationProcessorUtils.getAnnotation(method, EndpointTemplateMethod.class).orElseThrow(), annotation,
+                "Composed annotation should be synthesized once");
+        Assert.assertEquals(annotation.url(), "/users", "Url from composed annotation not as expected");
+        Assert.assertEquals(annotation.methodType(), HttpMethodType.GET, "Method type from meta-annotation not as expected");
+        Assert.assertEquals(annotation.annotationType(), EndpointTemplateMethod.class);
+        Assert.assertEquals(annotation, annotation);
+        Assert.assertEquals(annotation.hashCode(), AnnotationProcessorUtils.getAnnotation(new RuntimeMethod(null, method, null),
+                EndpointTemplateMethod.class).orElseThrow().hashCode());
+
+        TemplateWAnnotation template = TemplateFactory.prepareTemplate(TemplateWAnnotation.class);
+        Assert.assertEquals(template.getUsers().getMethodPath(), "http://test.api.com/users", "Method path of the composed annotation not as expected");
+    }
+
+    @Test
+    public void testRequestBodyIsCopied() {
+        TemplateWAnnotation template = TemplateFactory.prepareTemplate(TemplateWAnnotation.class);
+        Object user = new Object();
+        ApiMethodDefinition definition = template.createUser(user).getDefinition();
+
+        RequestBodyContainer requestBody = definition.getRequestBody().orElseThrow();
+        Assert.assertSame(requestBody.getBody().orElseThrow(), user, "Request body not as expected");
+        requestBody.setBody("changed");
+        requestBody.setJson(true);
+        Assert.assertSame(definition.getRequestBody().orElseThrow().getBody().orElseThrow(), user, "Request body of the definition was changed");
+        Assert.assertFalse(definition.getRequestBody().orElseThrow().isJson(), "Request body type of the definition was changed");
+    }
+
 }
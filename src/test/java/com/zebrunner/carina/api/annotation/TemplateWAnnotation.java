@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.annotation;
+
+import com.zebrunner.carina.api.AbstractApiMethodV2;
+import com.zebrunner.carina.api.annotation.method.GetMethod;
+import com.zebrunner.carina.api.http.HttpMethodType;
+
+@EndpointTemplate(url = "http://test.api.com")
+@ContentType(type = "application/xml")
+public interface TemplateWAnnotation {
+
+    @EndpointTemplateMethod(url = "/users/${id}", methodType = HttpMethodType.GET)
+    AbstractApiMethodV2 getUser(@PathParam(key = "id") Long id);
+
+    @GetMethod(url = "/users")
+    AbstractApiMethodV2 getUsers();
+
+    @EndpointTemplateMethod(url = "/users", methodType = HttpMethodType.POST)
+    AbstractApiMethodV2 createUser(@RequestBody Object user);
+
+    default AbstractApiMethodV2 getFirstUser() {
+        return getUser(1L);
+    }
+}
@@ -105,4 +105,39 @@ public class GenerateProcessorTest {
         Assert.assertFalse(actual.contains("generate_number"));
         Assert.assertFalse(actual.contains("generate_date"));
     }
+
+    @Test
+    public void testEqualPlaceholdersInValue() {
+        GenerateProcessor generateProcessor = new GenerateProcessor();
+        Properties properties = new Properties();
+        String key = "email";
+        properties.setProperty(key, "generate_word(8)@generate_word(8).com");
+        String[] actual = generateProcessor.process(properties).getProperty(key).split("[@.]");
+        Assert.assertEquals(actual[0], actual[1], "Equal placeholders should be replaced by the same value");
+    }
+
+    @Test
+    public void testCustomGenerator() {
+        GenerateProcessor generateProcessor = new GenerateProcessor();
+        Properties properties = new Properties();
+        properties.setProperty("custom", "id-generate_repeat(ab;3)-generate_number(2)");
+        properties.setProperty("plain", "text (without) placeholders");
+        Properties actual = generateProcessor.process(properties);
+        Assert.assertTrue(actual.getProperty("custom").matches("id-ababab-[0-9]{2}"), actual.getProperty("custom"));
+        Assert.assertFalse(actual.containsKey("plain"), "Value without placeholders should not be processed");
+    }
+
+    public static class RepeatGenerator implements ValueGenerator {
+
+        @Override
+        public String getKeyword() {
+            return "generate_repeat";
+        }
+
+        @Override
+        public String generate(String argument) {
+            String[] parts = argument.split(";");
+            return parts[0].repeat(Integer.parseInt(parts[1]));
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+public class LayeredPropertiesTest {
+
+    @Test
+    public void testModificationsDoNotChangeLayer() {
+        Map<Object, Object> layer = Map.of("first", "1", "second", "2");
+        LayeredProperties properties = new LayeredProperties(layer);
+        properties.put("first", "one");
+        properties.put("third", "3");
+        properties.remove("second");
+
+        Assert.assertEquals(properties.getProperty("first"), "one");
+        Assert.assertEquals(properties.getProperty("third"), "3");
+        Assert.assertNull(properties.get("second"), "Removed key should not be visible");
+        Assert.assertEquals(properties.size(), 2);
+        Assert.assertEquals(layer, Map.of("first", "1", "second", "2"), "Layer should not be modified");
+
+        properties.put("second", "two");
+        Assert.assertEquals(properties, Map.of("first", "one", "second", "two", "third", "3"));
+    }
+
+    @Test
+    public void testNewLayerOverridesValues() {
+        LayeredProperties properties = new LayeredProperties(Map.of("first", "1", "second", "2"));
+        properties.put("third", "3");
+        properties.remove("first");
+        properties.addLayer(Map.of("first", "one", "third", "three"));
+
+        Map<Object, Object> visible = new HashMap<>();
+        properties.forEach(visible::put);
+        Assert.assertEquals(visible, Map.of("first", "one", "second", "2", "third", "three"));
+    }
+
+    @Test
+    public void testProcessingKeepsLayer() {
+        LayeredProperties properties = new LayeredProperties(Map.of("name", "generate_word(8)", "value", "1"));
+        properties.put("surname", "generate_word(4)");
+
+        Properties processed = PropertiesProcessorMain.processProperties(properties, null);
+        Assert.assertTrue(processed instanceof LayeredProperties, "Layers should be shared with processed properties");
+        Assert.assertTrue(processed.getProperty("name").matches("[a-zA-Z]{8}"), processed.getProperty("name"));
+        Assert.assertTrue(processed.getProperty("surname").matches("[a-zA-Z]{4}"), processed.getProperty("surname"));
+        Assert.assertEquals(processed.getProperty("value"), "1");
+        Assert.assertEquals(properties.getProperty("name"), "generate_word(8)", "Source properties should not be modified");
+    }
+}
@@ -20,7 +20,12 @@ import com.zebrunner.carina.utils.R;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MessageBuilderTest {
 
@@ -33,6 +38,29 @@ public class MessageBuilderTest {
         Assert.assertEquals(actualStringMessage, expectedStringMessage, "String message wasn't generated properly");
     }
 
+    @Test
+    public void testConcurrentBuildStringMessage() throws Exception {
+        String expectedStringMessage = getStringProperties(R.TESTDATA.getProperties());
+        long rendersBefore = MessageBuilder.getRenderStats("testdata.properties")
+                .map(TemplateRenderStats::getCount)
+                .orElse(0L);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> messages = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                messages.add(executor.submit(() -> MessageBuilder.buildStringMessage("testdata.properties")));
+            }
+            for (Future<String> message : messages) {
+                Assert.assertEquals(message.get(), expectedStringMessage, "String message wasn't generated properly");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        TemplateRenderStats stats = MessageBuilder.getRenderStats("testdata.properties").orElseThrow();
+        Assert.assertEquals(stats.getCount(), rendersBefore + 20, "Render count is not as expected");
+        Assert.assertTrue(stats.getMaxTime().compareTo(stats.getAverageTime()) >= 0, "Max render time is less than average");
+    }
+
     @Test(expectedExceptions = RuntimeException.class)
     public void testBuildStringMessageWithWrongProperties() {
         MessageBuilder.buildStringMessage("nonexistent.properties");
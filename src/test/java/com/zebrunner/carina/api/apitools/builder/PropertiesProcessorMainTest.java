@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+public class PropertiesProcessorMainTest {
+
+    @Test
+    public void testProcessedPropertiesAreNotGeneratedAgain() {
+        Properties properties = new Properties();
+        properties.setProperty("name", "generate_word(10)");
+
+        Properties processed = PropertiesProcessorMain.processProperties(properties, null);
+        Assert.assertTrue(processed.getProperty("name").matches("[a-zA-Z]{10}"), processed.getProperty("name"));
+
+        Properties processedAgain = PropertiesProcessorMain.processProperties(processed, null);
+        Assert.assertNotSame(processedAgain, processed, "Processed properties should be copied");
+        Assert.assertEquals(processedAgain, processed);
+
+        processedAgain.setProperty("surname", "generate_word(5)");
+        Properties modified = PropertiesProcessorMain.processProperties(processedAgain, null);
+        Assert.assertTrue(modified.getProperty("surname").matches("[a-zA-Z]{5}"), "Modified properties should be processed again");
+        Assert.assertEquals(modified.getProperty("name"), processed.getProperty("name"));
+    }
+
+    @Test
+    public void testIgnoredProcessors() {
+        Properties properties = new Properties();
+        properties.setProperty("name", "generate_word(10)");
+
+        Properties notGenerated = PropertiesProcessorMain.processProperties(properties, List.of(GenerateProcessor.class));
+        Assert.assertEquals(notGenerated.getProperty("name"), "generate_word(10)");
+        Properties generated = PropertiesProcessorMain.processProperties(notGenerated, null);
+        Assert.assertTrue(generated.getProperty("name").matches("[a-zA-Z]{10}"), "Properties should be processed by other processors");
+    }
+}
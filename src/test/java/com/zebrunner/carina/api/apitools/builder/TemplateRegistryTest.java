@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.builder;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class TemplateRegistryTest {
+
+    @Test
+    public void testPreload() {
+        int loaded = TemplateRegistry.preload(List.of("testdata.properties", "testdata.properties", "nonexistent.properties"));
+        Assert.assertEquals(loaded, 1, "Only existing template should be loaded");
+
+        TemplateRegistry.CacheStats before = TemplateRegistry.getCacheStats();
+        MessageBuilder.buildStringMessage("testdata.properties");
+        TemplateRegistry.CacheStats after = TemplateRegistry.getCacheStats();
+        Assert.assertTrue(after.getHitCount() > before.getHitCount(), "Preloaded template should be taken from the cache");
+        Assert.assertEquals(after.getMissCount(), before.getMissCount(), "Preloaded template should not be loaded again");
+    }
+
+    @Test
+    public void testPreloadIndexed() {
+        Assert.assertEquals(TemplateRegistry.preloadIndexed(), 1, "Indexed template should be loaded");
+    }
+}
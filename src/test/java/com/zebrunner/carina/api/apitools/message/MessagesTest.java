@@ -19,9 +19,14 @@ import com.zebrunner.carina.api.apitools.message.Message;
 import com.zebrunner.carina.api.apitools.message.TemplateMessage;
 import com.zebrunner.carina.api.apitools.message.TextMessage;
 import com.zebrunner.carina.utils.R;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.CompositeConfiguration;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
 import java.util.Properties;
 
 public class MessagesTest {
@@ -92,6 +97,43 @@ public class MessagesTest {
         Assert.assertNull(message.getPropertiesStorage().get("someKey"), "someKey wasn't removed from PropertiesStorage");
     }
 
+    @Test
+    public void testWriteMessageTextKeepsPropertiesStorage() throws IOException {
+        TemplateMessage message = new TemplateMessage();
+        message.setTemplatePath(PROPERTIES_PATH);
+        Properties properties = new Properties();
+        properties.put("someKey", "someValue");
+        message.setPropertiesStorage(properties);
+
+        StringWriter writer = new StringWriter();
+        message.writeMessageText(writer);
+
+        Assert.assertFalse(writer.toString().isEmpty(), "Message wasn't written");
+        Assert.assertSame(message.getPropertiesStorage(), properties, "propertiesStorage was replaced while writing the message");
+    }
+
+    @Test
+    public void testEnvironmentConfiguration() {
+        BaseConfiguration configuration = new BaseConfiguration();
+        configuration.addProperty("env", "stage");
+        configuration.addProperty("host", "stage.api.com");
+        TemplateMessage message = new TemplateMessage();
+        message.putItemToPropertiesStorage("env", "local");
+        message.setEnvironmentConfiguration(new CompositeConfiguration(List.of(configuration)));
+        Properties storage = message.getPropertiesStorage();
+
+        Assert.assertEquals(storage.get("env"), "stage", "Configuration value should override present one");
+        Assert.assertTrue(storage.containsKey("host"), "Configuration key not found");
+        Assert.assertEquals(storage.size(), 2, "Size of the properties storage not as expected");
+
+        message.removeItemFromPropertiesStorage("host");
+        Assert.assertFalse(storage.containsKey("host"), "Configuration key wasn't removed from PropertiesStorage");
+        Assert.assertEquals(configuration.getString("host"), "stage.api.com", "Configuration shouldn't be modified");
+
+        configuration.addProperty("port", "8080");
+        Assert.assertEquals(storage.get("port"), "8080", "Configuration changes should be visible");
+    }
+
     @Test
     public void testGetTemplateMessageText() {
         TemplateMessage message = new TemplateMessage();
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+public class GenerationUtilTest {
+
+    @Test
+    public void testSeededGeneration() {
+        try {
+            GenerationUtil.setSeed(42);
+            String word = GenerationUtil.generateWord(12);
+            String number = GenerationUtil.generateNumber(12);
+
+            GenerationUtil.setSeed(42);
+            Assert.assertEquals(GenerationUtil.generateWord(12), word, "Word should be reproducible with the same seed");
+            Assert.assertEquals(GenerationUtil.generateNumber(12), number, "Number should be reproducible with the same seed");
+            Assert.assertTrue(word.matches("[a-z]{12}"), word);
+            Assert.assertTrue(number.matches("[0-9]{12}"), number);
+        } finally {
+            GenerationUtil.resetSeed();
+        }
+    }
+
+    @Test
+    public void testGenerateTime() {
+        String zone = "Europe/Warsaw";
+        String expected = LocalDate.now(ZoneId.of(zone)).plusDays(3).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        Assert.assertEquals(GenerationUtil.generateTime("yyyy-MM-dd", 3, Calendar.DAY_OF_YEAR, zone), expected);
+        Assert.assertEquals(GenerationUtil.generateTime("yyyy", -1, Calendar.YEAR, zone),
+                String.valueOf(LocalDate.now(ZoneId.of(zone)).getYear() - 1));
+    }
+
+    @Test
+    public void testSimpleDateFormatPatterns() {
+        String zone = "Europe/Warsaw";
+        SimpleDateFormat dayOfWeek = new SimpleDateFormat("u");
+        dayOfWeek.setTimeZone(TimeZone.getTimeZone(zone));
+        Assert.assertEquals(GenerationUtil.generateTime("u", 0, Calendar.DAY_OF_YEAR, zone), dayOfWeek.format(Calendar.getInstance().getTime()),
+                "Pattern letters should have SimpleDateFormat meaning");
+        Assert.assertTrue(GenerationUtil.generateTime("ss.SSSSSS", 0, Calendar.SECOND, zone).matches("\\d{2}\\.000\\d{3}"),
+                "Milliseconds should be padded as SimpleDateFormat does");
+    }
+}
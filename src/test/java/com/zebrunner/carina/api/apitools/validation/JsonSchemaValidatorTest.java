@@ -85,4 +85,26 @@ public class JsonSchemaValidatorTest {
         }
         Assert.assertTrue(isErrorThrown, "Assertion Error not thrown");
     }
+
+	@Test
+    public void testCachedSchemaValidation() throws IOException {
+        String actualRs = IOUtils.toString(JsonSchemaValidatorTest.class.getClassLoader().getResourceAsStream(
+                "validation/schema/schema7/rs_w_schema_error.json"), Charset.forName("UTF-8").toString());
+        String schema = IOUtils.toString(JsonSchemaValidatorTest.class.getClassLoader().getResourceAsStream(
+                "validation/schema/schema7/schema7.json"), Charset.forName("UTF-8").toString());
+        String expectedError = IOUtils.toString(JsonSchemaValidatorTest.class.getClassLoader().getResourceAsStream(
+                "validation/schema/schema7/error_schema7.json"), Charset.forName("UTF-8").toString());
+
+        for (int i = 0; i < 3; i++) {
+            boolean isErrorThrown = false;
+            try {
+                // the same schema text in a new string is taken from the cache
+                JsonValidator.validateJsonAgainstSchema(new String(schema), actualRs);
+            } catch (AssertionError e) {
+                isErrorThrown = true;
+                Assert.assertEquals(normalizeSpace(e.getMessage()), normalizeSpace(expectedError), "Error message not as expected");
+            }
+            Assert.assertTrue(isErrorThrown, "Assertion Error not thrown");
+        }
+    }
 }
@@ -20,6 +20,7 @@ import static org.apache.commons.lang3.StringUtils.normalizeSpace;
 import java.io.IOException;
 import java.nio.charset.Charset;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONException;
 import org.skyscreamer.jsonassert.JSONAssert;
@@ -255,4 +256,152 @@ public class JsonValidatorTest {
         JsonValidator.validateJson("{\"values\" : [[ 1, 1 ]]}", "{\"values\" : [[ 1, 1 ]]}",
                 JSONCompareMode.LENIENT);
     }
+
+    @Test
+    public void testLargeUnorderedArrayValidation() {
+        int size = 5000;
+        StringBuilder expectedRs = new StringBuilder("[");
+        StringBuilder actualRs = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            expectedRs.append(i == 0 ? "" : ",").append(String.format("{\"id\": %d, \"name\": \"type:String\", \"age\": %d}", i, i % 50));
+            int actualId = size - 1 - i;
+            actualRs.append(i == 0 ? "" : ",").append(String.format("{\"id\": %d.0, \"name\": \"user%d\", \"age\": %d}", actualId, actualId, actualId % 50));
+        }
+        JsonValidator.validateJson(expectedRs.append("]").toString(), actualRs.append("]").toString(), JSONCompareMode.NON_EXTENSIBLE);
+    }
+
+    @Test
+    public void testUnorderedArrayMostlySimilarItem() {
+        String expectedRs = "[{\"id\": 1, \"name\": \"first\", \"age\": 10}, {\"id\": 2, \"name\": \"second\", \"age\": 20}]";
+        String actualRs = "[{\"id\": 2, \"name\": \"second\", \"age\": 20}, {\"id\": 1, \"name\": \"first\", \"age\": 11}]";
+
+        boolean isErrorThrown = false;
+        try {
+            JsonValidator.validateJson(expectedRs, actualRs, JSONCompareMode.NON_EXTENSIBLE);
+        } catch (AssertionError e) {
+            isErrorThrown = true;
+            Assert.assertEquals(normalizeSpace(e.getMessage()), "[0].age Expected: 10 got: 11", "Error message not as expected");
+        }
+        Assert.assertTrue(isErrorThrown, "Assertion Error not thrown");
+    }
+
+    @Test
+    public void testOgnlAndRegexKeywords() {
+        String expectedRs = "{\"total\": \"ognl:#val == #root.items[1].id + 1\", \"items\": [{\"id\": \"ognl:#val > 0\", \"name\": \"regex:^user\\\\d+$\"},"
+                + " {\"id\": \"ognl:#val > 0\", \"name\": \"regex:^user\\\\d+$\"}]}";
+        String actualRs = "{\"total\": 3, \"items\": [{\"id\": 1, \"name\": \"user1\"}, {\"id\": 2, \"name\": \"user2\"}]}";
+        JsonValidator.validateJson(expectedRs, actualRs, JSONCompareMode.NON_EXTENSIBLE);
+
+        boolean isErrorThrown = false;
+        try {
+            JsonValidator.validateJson(expectedRs, actualRs.replace("user2", "admin2").replace("3", "4"), JSONCompareMode.NON_EXTENSIBLE);
+        } catch (AssertionError e) {
+            isErrorThrown = true;
+            Assert.assertTrue(e.getMessage().contains("Actual value '4' doesn't match to expected OGNL expression"), e.getMessage());
+            Assert.assertTrue(e.getMessage().contains("Actual value 'admin2' doesn't match to expected regex '^user\\d+$'"), e.getMessage());
+        }
+        Assert.assertTrue(isErrorThrown, "Assertion Error not thrown");
+    }
+
+    @Test
+    public void testParsedJsonValidationMessages() throws IOException {
+        String[][] cases = {
+                { "validation/array/duplicate/array_exp.json", "validation/array/duplicate/array_act_err.json" },
+                { "validation/array/skip/array_exp.json", "validation/array/skip/array_act_err.json" },
+                { "validation/array/integer/array_exp.json", "validation/array/integer/array_act_err.json" },
+                { "validation/array/contains/rs_array_2_items.json", "validation/array/contains/rs_array_many_items.json" },
+                { "validation/object/mode/expected.json", "validation/object/mode/actual.json" }
+        };
+        for (String[] paths : cases) {
+            String expectedRs = IOUtils.toString(JsonValidatorTest.class.getClassLoader().getResourceAsStream(paths[0]),
+                    Charset.forName("UTF-8").toString());
+            String actualRs = IOUtils.toString(JsonValidatorTest.class.getClassLoader().getResourceAsStream(paths[1]),
+                    Charset.forName("UTF-8").toString());
+
+            String expectedError = null;
+            try {
+                JSONAssert.assertEquals(expectedRs, actualRs, new JsonKeywordsComparator(actualRs, JSONCompareMode.STRICT));
+            } catch (JSONException e) {
+                throw new RuntimeException(e);
+            } catch (AssertionError e) {
+                expectedError = e.getMessage();
+            }
+            Assert.assertNotNull(expectedError, "Assertion Error not thrown for " + paths[1]);
+
+            boolean isErrorThrown = false;
+            try {
+                JsonValidator.validateJson(expectedRs, new ObjectMapper().readTree(actualRs), JSONCompareMode.STRICT, null);
+            } catch (AssertionError e) {
+                isErrorThrown = true;
+                Assert.assertEquals(normalizeSpace(e.getMessage()), normalizeSpace(expectedError), "Error message not as expected for " + paths[1]);
+            }
+            Assert.assertTrue(isErrorThrown, "Assertion Error not thrown for " + paths[1]);
+        }
+    }
+
+    @Test
+    public void testParallelArrayValidation() {
+        int size = 1000;
+        StringBuilder expectedRs = new StringBuilder("{\"items\": [");
+        StringBuilder actualRs = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < size; i++) {
+            String expectedItem = i % 3 == 0
+                    ? "{\"id\": \"type:Integer\", \"group\": %d}"
+                    : "{\"id\": %d, \"group\": \"ognl:#val < 10\"}";
+            expectedRs.append(i == 0 ? "" : ",").append(String.format(expectedItem, i % 3 == 0 ? i % 10 : i));
+            int actualId = size - 1 - i;
+            int group = actualId % 97 == 0 ? 11 : actualId % 10;
+            actualRs.append(i == 0 ? "" : ",").append(String.format("{\"id\": %d, \"group\": %d}", actualId, group));
+        }
+        expectedRs.append("]}");
+        actualRs.append("]}");
+
+        String sequentialError = null;
+        try {
+            JsonValidator.validateJson(expectedRs.toString(), actualRs.toString(), JSONCompareMode.NON_EXTENSIBLE);
+        } catch (AssertionError e) {
+            sequentialError = e.getMessage();
+        }
+        Assert.assertNotNull(sequentialError, "Assertion Error not thrown");
+
+        boolean isErrorThrown = false;
+        try {
+            JsonValidator.validateJson(expectedRs.toString(), actualRs.toString(), JSONCompareMode.NON_EXTENSIBLE,
+                    JsonComparatorContext.context().withParallelism(4));
+        } catch (AssertionError e) {
+            isErrorThrown = true;
+            Assert.assertEquals(e.getMessage(), sequentialError, "Error message not as expected");
+        }
+        Assert.assertTrue(isErrorThrown, "Assertion Error not thrown");
+    }
+
+    @Test
+    public void testKeywordsOverParsedSubtrees() throws IOException {
+        String expectedRs = "{\"skipped\": \"skip\", \"object\": \"type:JSONObject\", \"array\": \"type:JSONObject\", \"text\": \"regex:^a\"}";
+        String actualRs = "{\"skipped\": {\"a\": [1, 2]}, \"object\": {\"b\": {\"c\": 1}}, \"array\": [{\"d\": 1}], \"text\": {\"e\": \"a\"}}";
+
+        String expectedError = null;
+        try {
+            JSONAssert.assertEquals(expectedRs, actualRs, new JsonKeywordsComparator(actualRs, JSONCompareMode.STRICT));
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
+        } catch (AssertionError e) {
+            expectedError = e.getMessage();
+        }
+        Assert.assertNotNull(expectedError, "Assertion Error not thrown");
+
+        boolean isErrorThrown = false;
+        try {
+            JsonValidator.validateJson(expectedRs, new ObjectMapper().readTree(actualRs), JSONCompareMode.STRICT, null);
+        } catch (AssertionError e) {
+            isErrorThrown = true;
+            Assert.assertEquals(e.getMessage(), expectedError, "Error message not as expected");
+        }
+        Assert.assertTrue(isErrorThrown, "Assertion Error not thrown");
+    }
+
+    @Test(expectedExceptions = JSONException.class)
+    public void testMalformedExpectedJson() throws IOException {
+        JsonValidator.validateJson("{\"id\": ", new ObjectMapper().readTree("{\"id\": 1}"), JSONCompareMode.STRICT, null);
+    }
 }
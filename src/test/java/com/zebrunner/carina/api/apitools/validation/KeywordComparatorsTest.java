@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.apitools.validation;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class KeywordComparatorsTest {
+
+    @Test
+    public void testComparatorsAreFoundInRegistrationOrder() {
+        JsonKeywordComparator skip = new SkipKeywordComparator();
+        JsonKeywordComparator type = new TypeKeywordComparator();
+        JsonKeywordComparator typeLong = new TestComparator("type:Long", "type:Long");
+        JsonKeywordComparator generic = new TestComparator(null, "type:Integer");
+        KeywordComparators comparators = new KeywordComparators(List.of(skip, generic, type, typeLong));
+
+        Assert.assertSame(comparators.find("skip"), skip);
+        Assert.assertNull(comparators.find("skipped"), "Skip keyword should match the whole value only");
+        Assert.assertSame(comparators.find("type:Integer"), generic);
+        Assert.assertSame(comparators.find("type:Long"), type);
+        Assert.assertNull(comparators.find("regex:.*"));
+        Assert.assertNull(comparators.find(42));
+    }
+
+    private static final class TestComparator implements JsonKeywordComparator {
+
+        private final String keyword;
+        private final String value;
+
+        private TestComparator(String keyword, String value) {
+            this.keyword = keyword;
+            this.value = value;
+        }
+
+        @Override
+        public void compare(String prefix, Object expectedValue, Object actualValue, JsonCompareResultWrapper result) {
+            // do nothing
+        }
+
+        @Override
+        public boolean isMatch(Object expectedValue) {
+            return value.equals(expectedValue.toString());
+        }
+
+        @Override
+        public String getKeyword() {
+            return keyword;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.zebrunner.carina.api.mock.apimethod.NoContentTypeMethod;
+import com.zebrunner.carina.api.mock.server.MockServer;
+import io.restassured.specification.FilterableRequestSpecification;
+
+public class ConnectionPoolTest {
+
+    private MockServer server;
+
+    @BeforeClass
+    public void up() {
+        server = new MockServer();
+        server.start();
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws IOException {
+        String actualJsonData = Files.lines(Path.of("src/test/resources/validation/array/duplicate/array_act.json"))
+                .collect(Collectors.joining("\n"));
+        server.createResponse("/mock1", actualJsonData);
+        for (int i = 0; i < 3; i++) {
+            NoContentTypeMethod noContentTypeMethod = new NoContentTypeMethod(server.getBaseUrl());
+            noContentTypeMethod.callAPI();
+            noContentTypeMethod.validateResponse();
+        }
+        Assert.assertEquals(ConnectionPool.getTotalStats().getLeased(), 0, "Connections were not returned to the pool");
+        Assert.assertTrue(ConnectionPool.getTotalStats().getAvailable() > 0, "Connections were not kept alive in the pool");
+    }
+
+    @Test
+    public void testSSLConfigKeepsPool() {
+        NoContentTypeMethod noContentTypeMethod = new NoContentTypeMethod(server.getBaseUrl());
+        noContentTypeMethod.ignoreSSLCerts();
+        Assert.assertSame(((FilterableRequestSpecification) noContentTypeMethod.getRequest()).getConfig().getHttpClientConfig(),
+                ConnectionPool.config().getHttpClientConfig(), "Shared pool is replaced by SSL configuration");
+        Assert.assertTrue(((FilterableRequestSpecification) noContentTypeMethod.getRequest()).getConfig().getSSLConfig().isUserConfigured());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void down() {
+        server.stop();
+    }
+}
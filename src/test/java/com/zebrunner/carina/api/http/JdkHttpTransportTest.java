@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.zebrunner.carina.api.mock.apimethod.FormMethod;
+import com.zebrunner.carina.api.mock.apimethod.NoContentTypeMethod;
+import com.zebrunner.carina.api.mock.server.MockServer;
+
+public class JdkHttpTransportTest {
+
+    private MockServer server;
+    private WireMock wireMock;
+
+    @BeforeClass
+    public void up() {
+        server = new MockServer();
+        server.start();
+        wireMock = new WireMock(server.getPort());
+    }
+
+    @Test
+    public void testJdkTransport() throws IOException {
+        String actualJsonData = Files.lines(Path.of("src/test/resources/validation/array/duplicate/array_act.json"))
+                .collect(Collectors.joining("\n"));
+        server.createResponse("/mock1", actualJsonData);
+        NoContentTypeMethod noContentTypeMethod = new NoContentTypeMethod(server.getBaseUrl());
+        noContentTypeMethod.setTransport(new JdkHttpTransport());
+        noContentTypeMethod.expectResponseStatus(HttpResponseStatusType.OK_200);
+        noContentTypeMethod.callAPI();
+        noContentTypeMethod.validateResponse();
+    }
+
+    @Test
+    public void testRequestAndFormParamsInPostBody() {
+        wireMock.register(WireMock.post(WireMock.urlEqualTo("/form"))
+                .willReturn(WireMock.aResponse().withStatus(200)));
+        FormMethod formMethod = new FormMethod(server.getBaseUrl());
+        formMethod.setTransport(new JdkHttpTransport());
+        formMethod.addParameter("id", "1");
+        formMethod.getRequest().formParam("city", "New York");
+        formMethod.expectResponseStatus(HttpResponseStatusType.OK_200);
+        formMethod.callAPI();
+
+        wireMock.verifyThat(WireMock.postRequestedFor(WireMock.urlEqualTo("/form"))
+                .withHeader("Content-Type", WireMock.containing("application/x-www-form-urlencoded"))
+                .withRequestBody(WireMock.equalTo("id=1&city=New+York")));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void down() {
+        server.stop();
+    }
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.http;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.zebrunner.carina.api.apitools.builder.MessageBuilder;
+import com.zebrunner.carina.api.mock.apimethod.StreamingMethod;
+import com.zebrunner.carina.api.mock.server.MockServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StreamingBodyTest {
+
+    private MockServer server;
+    private WireMock wireMock;
+
+    @BeforeClass
+    public void up() {
+        server = new MockServer();
+        server.start();
+        wireMock = new WireMock(server.getPort());
+    }
+
+    @Test
+    public void testLargeBody() throws IOException {
+        String line = "{\"name\":\"Zebrunner\",\"city\":\"Минск\"}\n";
+        StreamingBody body = new StreamingBody(writer -> {
+            for (int i = 0; i < 20_000; i++) {
+                writer.write(line);
+            }
+        }, "large body");
+        byte[] bytes;
+        try (InputStream in = body) {
+            bytes = in.readAllBytes();
+        }
+        Assert.assertEquals(bytes.length, line.getBytes(StandardCharsets.UTF_8).length * 20_000, "Body is truncated");
+        Assert.assertTrue(new String(bytes, StandardCharsets.UTF_8).endsWith(line));
+    }
+
+    @Test
+    public void testTemplateBody() throws IOException {
+        StreamingBody body = new StreamingBody(writer -> MessageBuilder.writeMessage("testdata.properties", writer), "testdata.properties");
+        Assert.assertEquals(new String(body.readAllBytes(), StandardCharsets.UTF_8), MessageBuilder.buildStringMessage("testdata.properties"));
+        Assert.assertEquals(body.toString(), "<streaming body: testdata.properties>");
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Unable to write request body broken body")
+    public void testWriterFailure() throws IOException {
+        StreamingBody body = new StreamingBody(writer -> {
+            writer.write("partial");
+            throw new IllegalStateException("template error");
+        }, "broken body");
+        body.readAllBytes();
+    }
+
+    @Test
+    public void testNewStream() throws IOException {
+        StreamingBody body = new StreamingBody(writer -> writer.write("body"), "body");
+        try (StreamingBody first = body.newStream(); StreamingBody second = body.newStream()) {
+            Assert.assertEquals(new String(first.readAllBytes(), StandardCharsets.UTF_8), "body");
+            Assert.assertEquals(new String(second.readAllBytes(), StandardCharsets.UTF_8), "body");
+        }
+    }
+
+    @Test
+    public void testCloseStopsWriter() throws IOException, InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        StreamingBody body = new StreamingBody(writer -> {
+            try {
+                char[] chunk = new char[1024];
+                while (true) {
+                    writer.write(chunk);
+                    writer.flush();
+                }
+            } finally {
+                finished.countDown();
+            }
+        }, "endless body");
+        StreamingBody stream = body.newStream();
+        Assert.assertTrue(stream.read() >= 0);
+        body.close();
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS), "Writer is not stopped after the body is closed");
+    }
+
+    @Test
+    public void testDefaultTransportStreamsJsonBody() {
+        wireMock.register(WireMock.post(WireMock.urlEqualTo("/stream"))
+                .willReturn(WireMock.aResponse().withStatus(200)));
+        StreamingMethod method = new StreamingMethod(server.getBaseUrl());
+        method.setStreamingBody(new StreamingBody(writer -> writer.write("{\"name\":\"Zebrunner\"}"), "json body"));
+        method.expectResponseStatus(HttpResponseStatusType.OK_200);
+        method.callAPI();
+
+        // a buffered body is sent with Content-Length
+        wireMock.verifyThat(WireMock.postRequestedFor(WireMock.urlEqualTo("/stream"))
+                .withHeader("Content-Type", WireMock.containing("application/json"))
+                .withHeader("Transfer-Encoding", WireMock.equalTo("chunked"))
+                .withoutHeader("Content-Length")
+                .withRequestBody(WireMock.equalTo("{\"name\":\"Zebrunner\"}")));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void down() {
+        server.stop();
+    }
+}
@@ -27,6 +27,10 @@ import com.zebrunner.carina.utils.config.StandardConfigurationOption;
 public class NoContentTypeMethod extends AbstractApiMethodV2 {
 
     public NoContentTypeMethod() {
-        replaceUrlPlaceholder("base_url", Configuration.getRequired("api_url", StandardConfigurationOption.ENVIRONMENT));
+        this(Configuration.getRequired("api_url", StandardConfigurationOption.ENVIRONMENT));
+    }
+
+    public NoContentTypeMethod(String baseUrl) {
+        replaceUrlPlaceholder("base_url", baseUrl);
     }
 }
@@ -17,7 +17,6 @@ package com.zebrunner.carina.api.mock.server;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
-import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
@@ -52,7 +51,7 @@ public class MockServer {
      * @param response String
      */
     public void createResponse(String testUrl, String response) {
-        stubFor(get(urlEqualTo(testUrl))
+        wireMockServer.stubFor(get(urlEqualTo(testUrl))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "text/plain")
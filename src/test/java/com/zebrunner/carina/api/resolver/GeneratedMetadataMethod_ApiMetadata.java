@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import com.zebrunner.carina.api.http.HttpMethodType;
+import com.zebrunner.carina.api.http.HttpResponseStatus;
+import com.zebrunner.carina.api.http.HttpResponseStatusType;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Metadata in the form carina-api-processor generates it for {@link GeneratedMetadataMethod}. Values differ from
+ * the annotations of the class, so tests can tell whether the metadata or reflection is used
+ */
+public class GeneratedMetadataMethod_ApiMetadata implements EndpointMetadata {
+
+    private static final Map<String, ?> HEADERS = Map.of("X-Source", "metadata");
+    private static final Map<String, ?> COOKIES = Map.of();
+
+    @Override
+    public Optional<RequestStartLine> getStartLine() {
+        return Optional.of(new RequestStartLine("http://metadata.api.com/users", HttpMethodType.POST));
+    }
+
+    @Override
+    public Optional<String> getContentType() {
+        return Optional.of("application/json");
+    }
+
+    @Override
+    public Optional<String> getRequestTemplatePath() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> getResponseTemplatePath() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<HttpResponseStatus> getSuccessfulHttpStatus() {
+        return Optional.of(HttpResponseStatusType.CREATED_201.getResponseStatus());
+    }
+
+    @Override
+    public Map<String, ?> getHeaders() {
+        return HEADERS;
+    }
+
+    @Override
+    public Map<String, ?> getCookies() {
+        return COOKIES;
+    }
+}
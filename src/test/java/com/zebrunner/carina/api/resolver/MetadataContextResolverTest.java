@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import com.zebrunner.carina.api.annotation.ApiMethodWAnnotation;
+import com.zebrunner.carina.api.http.HttpMethodType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+public class MetadataContextResolverTest {
+
+    @Test
+    public void testGeneratedMetadataIsUsed() {
+        RequestStartLine startLine = ContextResolverChain.resolveUrl(GeneratedMetadataMethod.class).orElseThrow();
+        Assert.assertEquals(startLine.getUrl(), "http://metadata.api.com/users", "Url should be taken from the generated metadata");
+        Assert.assertEquals(startLine.getMethodType(), HttpMethodType.POST, "Method type should be taken from the generated metadata");
+        Assert.assertEquals(ContextResolverChain.resolveContentType(GeneratedMetadataMethod.class).orElseThrow(), "application/json");
+        Assert.assertEquals(ContextResolverChain.resolveHeaders(GeneratedMetadataMethod.class).orElseThrow(), Map.of("X-Source", "metadata"));
+        Assert.assertEquals(ContextResolverChain.resolveSuccessfulHttpStatus(GeneratedMetadataMethod.class).orElseThrow().getCode(), 201);
+
+        ApiMethodDefinition definition = new GeneratedMetadataMethod().getDefinition();
+        Assert.assertEquals(definition.getStartLine().orElseThrow().getUrl(), "http://metadata.api.com/users",
+                "Definition should be resolved from the generated metadata");
+    }
+
+    @Test
+    public void testReflectionWithoutGeneratedMetadata() {
+        RequestStartLine startLine = ContextResolverChain.resolveUrl(ApiMethodWAnnotation.class).orElseThrow();
+        Assert.assertEquals(startLine.getUrl(), "http://test.api.com", "Url should be resolved from the annotation");
+        Assert.assertEquals(ContextResolverChain.resolveContentType(ApiMethodWAnnotation.class).orElseThrow(), "application/xml");
+    }
+}
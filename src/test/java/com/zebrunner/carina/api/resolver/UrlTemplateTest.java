@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2020-2022 Zebrunner Inc (https://www.zebrunner.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package com.zebrunner.carina.api.resolver;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class UrlTemplateTest {
+
+    @Test
+    public void testExpandPathParams() {
+        UrlTemplate template = UrlTemplate.compile("http://localhost/users/${id}/orders/${orderId}?id=${id}");
+        Assert.assertSame(UrlTemplate.compile("http://localhost/users/${id}/orders/${orderId}?id=${id}"), template,
+                "Template should be compiled once per url");
+        Assert.assertEquals(template.expand(Map.of("id", 1, "orderId", "abc")), "http://localhost/users/1/orders/abc?id=1");
+    }
+
+    @Test
+    public void testUnresolvedPlaceholdersAreKept() {
+        UrlTemplate template = UrlTemplate.compile("${base_url}/users/${id}/{raw}/${unclosed");
+        Assert.assertEquals(template.expand(Map.of("id", 5)), "${base_url}/users/5/{raw}/${unclosed");
+    }
+
+    @Test
+    public void testNullPathParamRemovesTrailingSlash() {
+        Map<String, Object> pathParams = Collections.singletonMap("id", null);
+        Assert.assertEquals(UrlTemplate.compile("http://localhost/users/${id}").expand(pathParams), "http://localhost/users");
+    }
+
+    @Test
+    public void testConfigurationPlaceholders() {
+        Assert.assertEquals(UrlTemplate.compile("http://${config.env}/${config.env.missing}").expand(Map.of()), "http://DEMO/");
+    }
+}